@@ -0,0 +1,107 @@
+package benchmark;
+
+import dictionary.FrontCodedWordSource;
+import dictionary.WordSource;
+import dictionary.WordSources;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the heap memory taken up by the different in-memory representations of the dictionary, against holding all
+ * the words as a plain {@code String[]}. The retained heap of each representation is measured as the difference in used
+ * heap before and after building it, after forcing garbage collection, so the numbers are approximate. The time taken
+ * by random access and, for the front-coded representation, by prefix queries, is reported as well.
+ * <pre>
+ *     java benchmark.DictionaryFootprint [&lt;word list&gt;]
+ * </pre>
+ */
+public final class DictionaryFootprint {
+
+    private static final int LOOKUPS = 1_000_000;
+
+    private DictionaryFootprint() { }
+
+    public static void main(String[] args) throws IOException {
+        Path wordFile = Paths.get(args.length > 0 ? args[0] : "Hangman/resources/words/words.txt");
+
+        WordSource resident = WordSources.open(wordFile, WordSources.Mode.RESIDENT);
+        String[]   strings  = new String[resident.size()];
+        long       before   = usedHeap();
+        for (int i = 0; i < strings.length; i++)
+            strings[i] = resident.wordAt(i);
+        long stringsHeap = usedHeap() - before;
+        report("String[]", stringsHeap, stringsHeap, timeLookups(new WordSource() {
+            @Override
+            public int size() {
+                return strings.length;
+            }
+
+            @Override
+            public String wordAt(int index) {
+                return strings[index];
+            }
+
+            @Override
+            public long heapFootprint() {
+                return 0;
+            }
+        }));
+
+        List<WordSource> retained = new ArrayList<>(); // so that no representation is collected while measuring
+        for (WordSources.Mode mode : WordSources.Mode.values()) {
+            if (mode == WordSources.Mode.COMPILED && !Files.isRegularFile(WordSources.compiledFileFor(wordFile)))
+                continue;
+            before = usedHeap();
+            WordSource source   = WordSources.open(wordFile, mode);
+            long       measured = usedHeap() - before;
+            retained.add(source);
+            report(mode.toString(), measured, source.heapFootprint(), timeLookups(source));
+            if (source instanceof FrontCodedWordSource) {
+                FrontCodedWordSource frontCoded = (FrontCodedWordSource) source;
+                long                 start      = System.nanoTime();
+                int                  found      = 0;
+                for (char c = 'a'; c <= 'z'; c++) {
+                    for (char d = 'a'; d <= 'z'; d++)
+                        found += frontCoded.countWithPrefix("" + c + d);
+                }
+                System.out.printf("%-12s %d two-letter prefix queries in %.2f us each (%d words)%n", "", 26 * 26,
+                                  (System.nanoTime() - start) / 1e3 / (26 * 26), found);
+            }
+        }
+        System.out.printf("%d representations of %d words measured%n", retained.size() + 1, strings.length);
+    }
+
+    private static void report(String name, long measured, long reported, double lookupNanos) {
+        System.out.printf("%-12s measured %8.2f MB, self-reported %8.2f MB, random access %6.1f ns%n",
+                          name, measured / 1e6, reported / 1e6, lookupNanos);
+    }
+
+    private static double timeLookups(WordSource source) {
+        Random random = new Random(219);
+        int    sum    = 0;
+        long   start  = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++)
+            sum += source.randomWord(random).length();
+        double nanos = (System.nanoTime() - start) / (double) LOOKUPS;
+        return sum > 0 ? nanos : -1;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
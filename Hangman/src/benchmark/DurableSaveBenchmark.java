@@ -0,0 +1,104 @@
+package benchmark;
+
+import data.GameData;
+import data.GameDataFile;
+import data.SaveArchive;
+import engine.HangmanState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Measures how many durable saves per second a number of threads get when they all save at once, each its own game,
+ * either to its own file in a shared directory, through a shared {@link GameDataFile}, or to its own slot of a shared
+ * {@link SaveArchive}. Since every save
+ * waits for the disk, the throughput grows with the number of threads only as far as they share their syncs.
+ * <pre>
+ *     java benchmark.DurableSaveBenchmark [&lt;saves per thread&gt; [&lt;most threads&gt;]]
+ * </pre>
+ */
+public final class DurableSaveBenchmark {
+
+    private DurableSaveBenchmark() { }
+
+    public static void main(String[] args) throws Exception {
+        int  saves     = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int  most      = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        Path directory = Files.createTempDirectory("hangman-durable");
+        try {
+            GameData gamedata = new GameData(null);
+            gamedata.setTargetWord("backgrounds");
+            gamedata.guess('e');
+            gamedata.guess('a');
+            run("warm-up", 1, saves, directory, gamedata);
+            for (int threads = 1; threads <= most; threads *= 2)
+                run("measured", threads, saves, directory, gamedata);
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator)
+                    Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static void run(String label, int threads, int saves, Path directory, GameData gamedata)
+            throws IOException, InterruptedException, ExecutionException {
+        HangmanState    state = gamedata.getEngine().state();
+        ExecutorService pool  = Executors.newFixedThreadPool(threads);
+        GameDataFile    file  = new GameDataFile();
+        try {
+            double files = measure(pool, threads, saves, thread -> {
+                Path path = directory.resolve(String.format("player-%02d.%s", thread, GameDataFile.BINARY_EXTENSION));
+                for (int i = 0; i < saves; i++)
+                    file.saveData(gamedata, path);
+            });
+
+            Path archivePath = directory.resolve("games." + SaveArchive.EXTENSION);
+            Files.deleteIfExists(archivePath);
+            double archived;
+            try (SaveArchive archive = new SaveArchive(archivePath)) {
+                archived = measure(pool, threads, saves, thread -> {
+                    for (int i = 0; i < saves; i++)
+                        archive.put(String.format("player-%02d", thread), state);
+                });
+            }
+            System.out.printf("%-8s %2d threads   files %,8.0f saves/s   archive %,8.0f saves/s%n", label, threads,
+                              files, archived);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static double measure(ExecutorService pool, int threads, int saves, Saver saver)
+            throws InterruptedException, ExecutionException {
+        List<Future<?>> running = new ArrayList<>();
+        long            start   = System.nanoTime();
+        for (int thread = 0; thread < threads; thread++) {
+            int id = thread;
+            running.add(pool.submit(() -> {
+                try {
+                    saver.save(id);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        }
+        for (Future<?> future : running)
+            future.get();
+        return (double) threads * saves / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private interface Saver {
+        void save(int thread) throws IOException;
+    }
+}
@@ -0,0 +1,84 @@
+package benchmark;
+
+import data.GameData;
+import data.GameDataFile;
+import data.SaveArchive;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Measures exporting saved games as CSV and as lines of JSON, from an archive with many games and from a directory
+ * with one saved file per game, in both the event log and the binary format. Since the export does not hold on to the
+ * records, it runs in a small heap, which only has to fit the slots of the archive, as a {@link SaveArchive} keeps them
+ * in memory anyway, e.g.,
+ * <pre>
+ *     java -Xmx64m benchmark.ExportBenchmark [&lt;games in the archive&gt; [&lt;games in the directory&gt;]]
+ * </pre>
+ */
+public final class ExportBenchmark {
+
+    private static final String[] WORDS = {"backgrounds", "hangman", "quizzical", "rhythm", "zephyr"};
+
+    private ExportBenchmark() { }
+
+    public static void main(String[] args) throws IOException {
+        int    archived  = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int    files     = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        Random random    = new Random(219);
+        Path   directory = Files.createTempDirectory("hangman-export");
+        try {
+            Path saves   = Files.createDirectory(directory.resolve("saves"));
+            Path archive = saves.resolve("games." + SaveArchive.EXTENSION);
+            try (SaveArchive slots = new SaveArchive(archive)) {
+                for (int i = 0; i < archived; i++)
+                    slots.put(String.format("player-%06d", i), game(random).getEngine().state());
+            }
+            GameDataFile file = new GameDataFile();
+            for (int i = 0; i < files; i++) {
+                String extension = i % 2 == 0 ? "json" : GameDataFile.BINARY_EXTENSION;
+                file.saveData(game(random), saves.resolve(String.format("game-%06d.%s", i, extension)));
+            }
+
+            for (int round = 0; round < 2; round++) { // the first round is a warm-up
+                System.out.printf("%s%n", round == 0 ? "warm-up" : "measured");
+                run("archive", archive, directory.resolve("archive." + GameDataFile.CSV_EXTENSION));
+                run("archive", archive, directory.resolve("archive." + GameDataFile.NDJSON_EXTENSION));
+                run("all", saves, directory.resolve("all." + GameDataFile.CSV_EXTENSION));
+                run("all", saves, directory.resolve("all." + GameDataFile.NDJSON_EXTENSION));
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static GameData game(Random random) {
+        GameData gamedata = new GameData(null);
+        gamedata.setTargetWord(WORDS[random.nextInt(WORDS.length)]);
+        for (int guesses = random.nextInt(8); guesses > 0; guesses--)
+            gamedata.guess((char) ('a' + random.nextInt(26)));
+        return gamedata;
+    }
+
+    private static void run(String label, Path from, Path to) throws IOException {
+        long start   = System.nanoTime();
+        long records = GameDataFile.exportGames(from, to, GameData.TOTAL_NUMBER_OF_GUESSES_ALLOWED);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("  %-8s %-14s %,8d records   %,10.0f records/s   %,12d bytes%n", label, to.getFileName(),
+                          records, records / (elapsed / 1e9), Files.size(to));
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> children = Files.list(path)) {
+                for (Path child : (Iterable<Path>) children::iterator)
+                    delete(child);
+            }
+        }
+        Files.delete(path);
+    }
+}
@@ -0,0 +1,117 @@
+package benchmark;
+
+import data.GameData;
+import data.GameDataFile;
+import data.SaveArchive;
+import engine.HangmanState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Compares saving and loading many games in the slots of one {@link SaveArchive} with saving and loading them as one
+ * file each, in the binary format, in a directory. Every game is saved once, then the games are loaded in a random
+ * order, and then the archive is reopened from its index.
+ * <pre>
+ *     java benchmark.SaveArchiveBenchmark [&lt;games&gt;]
+ * </pre>
+ */
+public final class SaveArchiveBenchmark {
+
+    private static final String[] WORDS = {"backgrounds", "hangman", "quizzical", "rhythm", "zephyr"};
+
+    private SaveArchiveBenchmark() { }
+
+    public static void main(String[] args) throws IOException {
+        int    games     = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Random random    = new Random(219);
+        Path   directory = Files.createTempDirectory("hangman-slots");
+        try {
+            GameData[] saved = new GameData[games];
+            for (int i = 0; i < games; i++) {
+                saved[i] = new GameData(null);
+                saved[i].setTargetWord(WORDS[random.nextInt(WORDS.length)]);
+                for (int guesses = random.nextInt(8); guesses > 0; guesses--)
+                    saved[i].guess((char) ('a' + random.nextInt(26)));
+            }
+            int[] order = random.ints(games, 0, games).toArray();
+
+            Path files = Files.createDirectory(directory.resolve("files"));
+            for (int round = 0; round < 2; round++) { // the first round is a warm-up
+                System.out.printf("%s: %,d games%n", round == 0 ? "warm-up" : "measured", games);
+                runFiles(files, saved, order);
+                runArchive(directory.resolve("games." + SaveArchive.EXTENSION), saved, order);
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static void runFiles(Path directory, GameData[] saved, int[] order) throws IOException {
+        GameDataFile file  = new GameDataFile();
+        long         start = System.nanoTime();
+        for (int i = 0; i < saved.length; i++)
+            file.saveData(saved[i], directory.resolve(slot(i) + "." + GameDataFile.BINARY_EXTENSION));
+        long saving = System.nanoTime() - start;
+
+        GameData loaded = new GameData(null);
+        start = System.nanoTime();
+        for (int i : order)
+            loaded.replay(GameDataFile.readEvents(directory.resolve(slot(i) + "." + GameDataFile.BINARY_EXTENSION),
+                                                  loaded.getEngine().getAllowedGuesses()));
+        long loading = System.nanoTime() - start;
+
+        long size;
+        try (Stream<Path> paths = Files.list(directory)) {
+            size = paths.mapToLong(path -> path.toFile().length()).sum();
+        }
+        report("files", saved.length, saving, loading, -1, size);
+    }
+
+    private static void runArchive(Path file, GameData[] saved, int[] order) throws IOException {
+        Files.deleteIfExists(file);
+        long saving, loading, opening;
+        try (SaveArchive archive = new SaveArchive(file)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < saved.length; i++)
+                archive.put(slot(i), saved[i].getEngine().state());
+            saving = System.nanoTime() - start;
+        }
+
+        long start = System.nanoTime();
+        try (SaveArchive archive = new SaveArchive(file)) {
+            opening = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i : order) {
+                HangmanState state = archive.get(slot(i));
+                if (!state.getTargetWord().equals(saved[i].getTargetWord()))
+                    throw new IllegalStateException(String.format("The slot %s did not load back its game.", slot(i)));
+            }
+            loading = System.nanoTime() - start;
+        }
+        report("archive", saved.length, saving, loading, opening, Files.size(file));
+    }
+
+    private static String slot(int i) {
+        return String.format("player-%06d", i);
+    }
+
+    private static void report(String label, int games, long saving, long loading, long opening, long size) {
+        System.out.printf("  %-8s save %6.1f us   load %6.1f us   %s%,d bytes%n", label, saving / 1e3 / games,
+                          loading / 1e3 / games, opening < 0 ? "" : String.format("open %.1f ms   ", opening / 1e6),
+                          size);
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> children = Files.list(path)) {
+                for (Path child : (Iterable<Path>) children::iterator)
+                    delete(child);
+            }
+        }
+        Files.delete(path);
+    }
+}
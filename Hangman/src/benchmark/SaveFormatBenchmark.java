@@ -0,0 +1,99 @@
+package benchmark;
+
+import data.GameData;
+import data.GameDataFile;
+import engine.GameEvent;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Compares the time it takes to save and to load a game in the JSON format, written and read with the Jackson
+ * streaming API, and in the compact binary format, along with the size of the saved files. Every save writes the whole
+ * game to the file, as the first save of a game does. Since the file system takes up most of the time of a save, the
+ * time it takes to encode and to decode a game in memory is measured on its own as well.
+ * <pre>
+ *     java benchmark.SaveFormatBenchmark [&lt;iterations&gt;]
+ * </pre>
+ */
+public final class SaveFormatBenchmark {
+
+    private static final String TARGET_WORD = "backgrounds";
+    private static final String GUESSES     = "etaoinsr";
+
+    private SaveFormatBenchmark() { }
+
+    public static void main(String[] args) throws IOException {
+        int      iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        GameData gamedata   = new GameData(null);
+        gamedata.setTargetWord(TARGET_WORD);
+        for (char c : GUESSES.toCharArray())
+            gamedata.guess(c);
+        gamedata.hint();
+
+        Path directory = Files.createTempDirectory("hangman-saves");
+        try {
+            Path json   = directory.resolve("game.json");
+            Path binary = directory.resolve("game." + GameDataFile.BINARY_EXTENSION);
+            for (int round = 0; round < 2; round++) { // the first round is a warm-up
+                System.out.printf("%s%n", round == 0 ? "warm-up" : "measured");
+                run("JSON", gamedata, json, iterations);
+                run("binary", gamedata, binary, iterations);
+                runInMemory("JSON", gamedata, false, iterations * 50);
+                runInMemory("binary", gamedata, true, iterations * 50);
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator)
+                    Files.delete(file);
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private static void run(String format, GameData gamedata, Path file, int iterations) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            new GameDataFile().saveData(gamedata, file);
+        long saving = System.nanoTime() - start;
+
+        GameData loaded = new GameData(null);
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            List<GameEvent> events = GameDataFile.readEvents(file, loaded.getEngine().getAllowedGuesses());
+            loaded.replay(events);
+        }
+        long loading = System.nanoTime() - start;
+
+        if (!loaded.getEngine().state().toString().equals(gamedata.getEngine().state().toString()))
+            throw new IllegalStateException(String.format("The %s save did not load back the same game.", format));
+        System.out.printf("  %-6s %4d bytes   save %6.1f us   load %6.1f us%n", format, Files.size(file),
+                          saving / 1e3 / iterations, loading / 1e3 / iterations);
+    }
+
+    private static void runInMemory(String format, GameData gamedata, boolean binary, int iterations)
+            throws IOException {
+        long   start = System.nanoTime();
+        byte[] saved = null;
+        for (int i = 0; i < iterations; i++)
+            saved = GameDataFile.encode(gamedata, binary);
+        long encoding = System.nanoTime() - start;
+
+        int             allowed = gamedata.getEngine().getAllowedGuesses();
+        List<GameEvent> events  = null;
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++)
+            events = GameDataFile.readEvents(saved, allowed);
+        long decoding = System.nanoTime() - start;
+
+        GameData loaded = new GameData(null);
+        loaded.replay(events);
+        if (!loaded.getEngine().state().toString().equals(gamedata.getEngine().state().toString()))
+            throw new IllegalStateException(String.format("The %s encoding did not decode to the same game.", format));
+        System.out.printf("  %-6s %4d bytes   encode %6.2f us   decode %6.2f us (in memory)%n", format, saved.length,
+                          encoding / 1e3 / iterations, decoding / 1e3 / iterations);
+    }
+}
@@ -0,0 +1,77 @@
+package benchmark;
+
+import dictionary.WordSource;
+import dictionary.WordSources;
+import engine.GuessResult;
+import session.SessionRegistry;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how many guesses per second a {@link SessionRegistry} sustains, with many concurrent games spread over an
+ * increasing number of threads. Every thread keeps guessing random letters in random sessions, and starts a new game
+ * in a session whenever its game is over. The number of threads goes up to twice the number of cores, and to at least
+ * 8 threads, so that contention is measured even on a machine with few cores. With few sessions, threads often guess
+ * in the same session at once, and wait for each other's lock.
+ * <pre>
+ *     java benchmark.SessionThroughput [&lt;sessions&gt; [&lt;seconds per run&gt; [&lt;word list&gt;
+ *                                      [&lt;max threads&gt;]]]]
+ * </pre>
+ */
+public final class SessionThroughput {
+
+    private SessionThroughput() { }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int        sessionCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int        seconds      = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Path       wordFile     = Paths.get(args.length > 2 ? args[2] : "Hangman/resources/words/words.txt");
+        int        maxThreads   = args.length > 3 ? Integer.parseInt(args[3])
+                                                  : Math.max(2 * Runtime.getRuntime().availableProcessors(), 8);
+        WordSource words        = WordSources.open(wordFile, WordSources.Mode.RESIDENT);
+
+        try (SessionRegistry registry = new SessionRegistry(() -> words.randomWord(ThreadLocalRandom.current()),
+                                                            1, TimeUnit.HOURS)) {
+            String[] ids = new String[sessionCount];
+            for (int i = 0; i < ids.length; i++)
+                ids[i] = registry.open();
+            System.out.printf("%,d sessions, %,d words, %d cores%n", registry.size(), words.size(),
+                              Runtime.getRuntime().availableProcessors());
+
+            run(registry, ids, 1, 1); // warm-up
+            for (int threads = 1; threads <= maxThreads; threads *= 2) {
+                long guesses = run(registry, ids, threads, seconds);
+                System.out.printf("%2d threads: %,12d guesses/s%n", threads, guesses / seconds);
+            }
+        }
+    }
+
+    private static long run(SessionRegistry registry, String[] ids, int threads, int seconds)
+            throws InterruptedException {
+        LongAdder      guesses  = new LongAdder();
+        CountDownLatch done     = new CountDownLatch(threads);
+        long           deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long              count  = 0;
+                while ((count & 0xFFF) != 0 || System.nanoTime() < deadline) {
+                    String id = ids[random.nextInt(ids.length)];
+                    if (registry.guess(id, (char) ('a' + random.nextInt(26))) == GuessResult.GAME_OVER)
+                        registry.newGame(id);
+                    count++;
+                }
+                guesses.add(count);
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        return guesses.sum();
+    }
+}
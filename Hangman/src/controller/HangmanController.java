@@ -1,10 +1,12 @@
 package controller;
 
 import apptemplate.AppTemplate;
+import components.AutoSaver;
 import data.GameData;
+import engine.GuessResult;
 import gui.Workspace;
-import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
+import javafx.event.EventHandler;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -21,6 +23,7 @@ import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
 import javafx.stage.FileChooser.ExtensionFilter;
 import propertymanager.PropertyManager;
+import settings.AppPropertyType;
 import ui.AppMessageDialogSingleton;
 import ui.YesNoCancelDialogSingleton;
 
@@ -28,9 +31,10 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashSet;
-import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import static settings.AppPropertyType.*;
 import static settings.InitializationParameters.APP_WORKDIR_PATH;
@@ -47,17 +51,23 @@ public class HangmanController implements FileController {
         ENDED
     }
 
+    private static final long AUTOSAVE_DELAY_MILLIS = 500; // how long an autosave waits to be coalesced with the next
+
     private AppTemplate appTemplate; // shared reference to the application
     private GameData    gamedata;    // shared reference to the game being played, loaded or saved
     private GameState   gamestate;   // the state of the game being shown in the workspace
     private Text[]      progress;    // reference to the text area for the word
     private boolean     success;     // whether or not player was successful
-    private int         discovered;  // the number of letters already discovered
     private Button      gameButton;  // shared reference to the "start game" button
     private Label       remains;     // dynamically updated label that indicates the number of remaining guesses
     private Path        workFile;
     private Button      hintButton;
     private FlowPane    alphabet;
+    private AutoSaver   autoSaver;     // writes every save in the background, including the autosaves
+    private int         modifications; // the number of changes made to the game, to tell if an autosave is current
+
+    private final EventHandler<KeyEvent>   keyTypedHandler = this::handleKeyTyped; // installed for every game
+    private final EventHandler<MouseEvent> hintHandler     = this::handleHint;     // installed for every game
 
     public HangmanController(AppTemplate appTemplate, Button gameButton) {
         this(appTemplate);
@@ -87,6 +97,8 @@ public class HangmanController implements FileController {
 
     public void setGameState(GameState gamestate) {
         this.gamestate = gamestate;
+        if (appTemplate.getGUI() != null)
+            appTemplate.getGUI().updateWorkspaceToolbar(gamestate.equals(GameState.INITIALIZED_MODIFIED));
     }
 
     public GameState getGamestate() {
@@ -102,9 +114,16 @@ public class HangmanController implements FileController {
      * is to write (and use) the GameData#init() method.
      */
     public void start() {
+        CompletableFuture<Void> readiness = appTemplate.getReadiness();
+        if (!readiness.isDone()) {
+            try {
+                readiness.join(); // the dictionary is still warming up, so the first game has to wait for it
+            } catch (CompletionException e) {
+                e.printStackTrace(); // the dictionary will instead be loaded on demand when the game is initialized
+            }
+        }
         gamedata = (GameData) appTemplate.getDataComponent();
         success = false;
-        discovered = 0;
 
         Workspace gameWorkspace = (Workspace) appTemplate.getWorkspaceComponent();
         gamedata.init();
@@ -115,7 +134,6 @@ public class HangmanController implements FileController {
         alphabet.setPadding(new Insets(10));
         hintButton = (Button) gameWorkspace.getGameTextsPane().getChildren().get(2);
         hintButton.setDisable(false);
-        gamedata.setHintState(false);
         if(!isHintable()) hintButton.setVisible(false);
         else    hintButton.setVisible(true);
         remains = new Label(Integer.toString(GameData.TOTAL_NUMBER_OF_GUESSES_ALLOWED));
@@ -131,7 +149,6 @@ public class HangmanController implements FileController {
         hintButton.setDisable(true);
         setGameState(GameState.ENDED);
         fillOutEmptyBoxes();
-        appTemplate.getGUI().updateWorkspaceToolbar(gamestate.equals(GameState.INITIALIZED_MODIFIED));
         Platform.runLater(() -> {
             PropertyManager           manager    = PropertyManager.getManager();
             AppMessageDialogSingleton dialog     = AppMessageDialogSingleton.getSingleton();
@@ -143,98 +160,110 @@ public class HangmanController implements FileController {
         });
     }
 
+    /**
+     * Hands the input over to the game being played. The handlers are created once, with this controller, and every
+     * change they make to the game is pushed to the workspace right away, so nothing runs while the player is idle.
+     */
     public void play() {
         disableGameButton();
-        Workspace gameWorkspace =  (Workspace) appTemplate.getWorkspaceComponent();
-        AnimationTimer timer = new AnimationTimer() {
-            @Override
-            public void handle(long now) {
-                appTemplate.getGUI().updateWorkspaceToolbar(gamestate.equals(GameState.INITIALIZED_MODIFIED));
-                appTemplate.getGUI().getPrimaryScene().setOnKeyTyped((KeyEvent event) -> {
-                    char guess = Character.toLowerCase(event.getCharacter().charAt(0));
-                    if (!alreadyGuessed(guess) && isValid(guess)) {
-                        boolean goodguess = false;
-                        useBox(guess);
-                        for (int i = 0; i < progress.length; i++) {
-                            if (gamedata.getTargetWord().charAt(i) == guess) {
-                                progress[i].setVisible(true);
-                                gamedata.addGoodGuess(guess);
-                                goodguess = true;
-                                discovered++;
-                            }
-                        }
-                        if (!goodguess) {
-                            gamedata.addBadGuess(guess);
-                            gameWorkspace.drawHangman(10-gamedata.getRemainingGuesses());
-                            if(gamedata.getRemainingGuesses()==1){
-                                hintButton.setDisable(true);
-                            }
-                        }
-
-                        success = (discovered == progress.length);
-                        remains.setText(Integer.toString(gamedata.getRemainingGuesses()));
-                    }
-                    setGameState(GameState.INITIALIZED_MODIFIED);
-                });
-                gameWorkspace.getHint().setOnMouseClicked((MouseEvent event) ->{
-                    useBox(giveHint());
-                    success = (discovered == progress.length);
-                    remains.setText(Integer.toString(gamedata.getRemainingGuesses()));
-                    gameWorkspace.drawHangman(10-gamedata.getRemainingGuesses());
-                });
-                if (gamedata.getRemainingGuesses() <= 0 || success)
-                    stop();
-            }
+        Workspace gameWorkspace = (Workspace) appTemplate.getWorkspaceComponent();
+        appTemplate.getGUI().updateWorkspaceToolbar(gamestate.equals(GameState.INITIALIZED_MODIFIED));
+        appTemplate.getGUI().getPrimaryScene().setOnKeyTyped(keyTypedHandler);
+        gameWorkspace.getHint().setOnMouseClicked(hintHandler);
+        checkForEnd(); // e.g., a saved game that had already ended
+    }
 
-            @Override
-            public void stop() {
-                super.stop();
-                end();
+    private void handleKeyTyped(KeyEvent event) {
+        if (event.getCharacter().isEmpty())
+            return;
+        char        guess  = Character.toLowerCase(event.getCharacter().charAt(0));
+        GuessResult result = gamedata.guess(guess);
+        if (result != GuessResult.GOOD && result != GuessResult.BAD)
+            return;
+        useBox(guess);
+        if (result == GuessResult.GOOD)
+            reveal(gamedata.positionsOf(guess));
+        else
+            drawHangman();
+        if (!gamedata.getEngine().isHintAvailable())
+            hintButton.setDisable(true);
+        remains.setText(Integer.toString(gamedata.getRemainingGuesses()));
+        setGameState(GameState.INITIALIZED_MODIFIED);
+        autosave();
+        checkForEnd();
+    }
+
+    private void handleHint(MouseEvent event) {
+        if (!gamedata.getEngine().isHintAvailable())
+            return;
+        useBox(giveHint());
+        remains.setText(Integer.toString(gamedata.getRemainingGuesses()));
+        drawHangman();
+        autosave();
+        checkForEnd();
+    }
+
+    /**
+     * Saves the game to its work file, if it has one, on a background thread, once the player pauses for a moment. The
+     * game is marked as unmodified again when the save completes, unless it has been changed since, and the player is
+     * told if it fails.
+     */
+    private void autosave() {
+        int modification = ++modifications;
+        if (workFile == null)
+            return;
+        CompletableFuture<Void> saved = getAutoSaver().schedule(gamedata.snapshot(), workFile);
+        saved.whenComplete((result, failure) -> Platform.runLater(() -> {
+            if (modification != modifications)
+                return; // the autosave of a later change reports how it went, once for all of them
+            if (failure != null) { // the game stays modified, so it can still be saved by hand
+                AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
+                PropertyManager           props  = PropertyManager.getManager();
+                dialog.show(props.getPropertyValue(SAVE_ERROR_TITLE), props.getPropertyValue(SAVE_ERROR_MESSAGE));
+            } else if (gamestate.equals(GameState.INITIALIZED_MODIFIED)) {
+                setGameState(GameState.INITIALIZED_UNMODIFIED);
             }
-        };
-        timer.start();
+        }));
+    }
+
+    private AutoSaver getAutoSaver() {
+        if (autoSaver == null)
+            autoSaver = new AutoSaver(appTemplate.getFileComponent(), AUTOSAVE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        return autoSaver;
+    }
+
+    private void drawHangman() {
+        Workspace gameWorkspace = (Workspace) appTemplate.getWorkspaceComponent();
+        gameWorkspace.drawHangman(gamedata.getEngine().getAllowedGuesses() - gamedata.getRemainingGuesses());
     }
 
-    public boolean isValid(char c){
-        return c >= 'a' && c <= 'z';
+    private void checkForEnd() {
+        if (gamedata.getEngine().isOver()) {
+            success = gamedata.isSolved();
+            end();
+        }
     }
 
     public char giveHint() {
         hintButton.setDisable(true);
-        gamedata.setHintState(true);
         setGameState(GameState.INITIALIZED_MODIFIED);
-        char guess = selectAChar().charAt(0);
-        for (int i = 0; i < progress.length; i++) {
-            if (gamedata.getTargetWord().charAt(i) == guess) {
-                progress[i].setVisible(true);
-                discovered++;
-            }
-        }
-        gamedata.addBadGuess(guess);
-        gamedata.addGoodGuess(guess);
-        //gamedata.reduceRemainingGuess();
+        char guess = gamedata.hint();
+        reveal(gamedata.positionsOf(guess));
         return guess;
     }
 
-    public String selectAChar(){
-        Random random = new Random();
-        String letter = null;
-        while(letter == null){
-            int index = random.nextInt(gamedata.getTargetWord().length());
-            letter = Character.toString(gamedata.getTargetWord().charAt(index));
-            if(gamedata.getGoodGuesses().contains(letter.charAt(0))) letter = null;
-        }
-
-        return letter;
+    /**
+     * Shows the letters at the given positions of the target word.
+     *
+     * @param positions The positions to reveal, as a mask with bit {@code p} set for position {@code p}.
+     */
+    private void reveal(long positions) {
+        for (long bits = positions; bits != 0; bits &= bits - 1)
+            progress[Long.numberOfTrailingZeros(bits)].setVisible(true);
     }
 
     public boolean isHintable(){
-        Set<Character> word = new HashSet<>();
-        char[] test = gamedata.getTargetWord().toCharArray();
-        for(Character c: test){
-            word.add(c);
-        }
-        return word.size() > GameData.HINT_THRESHOLD;
+        return gamedata.getEngine().isHintable();
     }
     private void initWordGraphics(FlowPane guessedLetters) {
         char[] targetword = gamedata.getTargetWord().toCharArray();
@@ -307,7 +336,7 @@ public class HangmanController implements FileController {
         remains = new Label(Integer.toString(gamedata.getRemainingGuesses()));
         remainingGuessBox.getChildren().addAll(new Label("Remaining Guesses: "), remains);
         hintButton = gameWorkspace.getHint();
-        if(gamedata.getHintIsUsed() || gamedata.getRemainingGuesses()==1) {
+        if(gamedata.getHintIsUsed() || gamedata.getRemainingGuesses() <= 1) {
             hintButton.setDisable(true);
             hintButton.setVisible(true);
         }
@@ -333,8 +362,8 @@ public class HangmanController implements FileController {
         play();
     }
     private void reflect(){
-        HashSet<Character> good = (HashSet<Character>) gamedata.getGoodGuesses();
-        HashSet<Character> bad = (HashSet<Character>) gamedata.getBadGuesses();
+        Set<Character> good = gamedata.getGoodGuesses();
+        Set<Character> bad = gamedata.getBadGuesses();
         for(Character it : good){
             useBox(it);
         }
@@ -343,24 +372,17 @@ public class HangmanController implements FileController {
         }
     }
     private void restoreWordGraphics(FlowPane guessedLetters) {
-        discovered = 0;
         char[] targetword = gamedata.getTargetWord().toCharArray();
         progress = new Text[targetword.length];
         for (int i = 0; i < progress.length; i++) {
             progress[i] = new Text(Character.toString(targetword[i]));
-            progress[i].setVisible(gamedata.getGoodGuesses().contains(progress[i].getText().charAt(0)));
+            progress[i].setVisible(gamedata.getGoodGuesses().contains(targetword[i]));
             progress[i].setFont(new Font(20));
-            if (progress[i].isVisible())
-                discovered++;
         }
         guessedLetters.getChildren().addAll(progress);
         drawBox(guessedLetters);
     }
 
-    private boolean alreadyGuessed(char c) {
-        return gamedata.getGoodGuesses().contains(c) || gamedata.getBadGuesses().contains(c);
-    }
-
     @Override
     public void handleNewRequest() {
         AppMessageDialogSingleton messageDialog   = AppMessageDialogSingleton.getSingleton();
@@ -399,11 +421,8 @@ public class HangmanController implements FileController {
             Path        targetPath  = appDirPath.resolve(APP_WORKDIR_PATH.getParameter());
             filechooser.setInitialDirectory(targetPath.toFile());
             filechooser.setTitle(propertyManager.getPropertyValue(SAVE_WORK_TITLE));
-            String description = propertyManager.getPropertyValue(WORK_FILE_EXT_DESC);
-            String extension   = propertyManager.getPropertyValue(WORK_FILE_EXT);
-            ExtensionFilter extFilter = new ExtensionFilter(String.format("%s (*.%s)", description, extension),
-                                                            String.format("*.%s", extension));
-            filechooser.getExtensionFilters().add(extFilter);
+            filechooser.getExtensionFilters().addAll(extensionFilter(WORK_FILE_EXT_DESC, WORK_FILE_EXT),
+                                                     extensionFilter(BINARY_WORK_FILE_EXT_DESC, BINARY_WORK_FILE_EXT));
             File selectedFile = filechooser.showSaveDialog(appTemplate.getGUI().getWindow());
             if (selectedFile != null)
                 save(selectedFile.toPath());
@@ -424,18 +443,15 @@ public class HangmanController implements FileController {
             Path            targetPath      = appDirPath.resolve(APP_WORKDIR_PATH.getParameter());
             filechooser.setInitialDirectory(targetPath.toFile());
             filechooser.setTitle(propertyManager.getPropertyValue(LOAD_WORK_TITLE));
-            String description = propertyManager.getPropertyValue(WORK_FILE_EXT_DESC);
-            String extension   = propertyManager.getPropertyValue(WORK_FILE_EXT);
-            ExtensionFilter extFilter = new ExtensionFilter(String.format("%s (*.%s)", description, extension),
-                                                            String.format("*.%s", extension));
-            filechooser.getExtensionFilters().add(extFilter);
+            filechooser.getExtensionFilters().addAll(extensionFilter(WORK_FILE_EXT_DESC, WORK_FILE_EXT),
+                                                     extensionFilter(BINARY_WORK_FILE_EXT_DESC, BINARY_WORK_FILE_EXT));
             File selectedFile = filechooser.showOpenDialog(appTemplate.getGUI().getWindow());
             if (selectedFile != null && selectedFile.exists()) {
                 try {
                     load(selectedFile.toPath());
                     restoreGUI(); // restores the GUI to reflect the state in which the loaded game was last saved
                 }
-                catch (NullPointerException e){
+                catch (IOException | NullPointerException e){
                     messageDialog.show(propertyManager.getPropertyValue(LOAD_ERROR_TITLE), propertyManager.getPropertyValue(LOAD_ERROR_MESSAGE));
                 }
             }
@@ -448,8 +464,11 @@ public class HangmanController implements FileController {
             boolean exit = true;
             if (gamestate.equals(GameState.INITIALIZED_MODIFIED))
                 exit = promptToSave();
-            if (exit)
+            if (exit) {
+                if (autoSaver != null)
+                    autoSaver.close(); // waits for the last save to be written
                 System.exit(0);
+            }
         } catch (IOException ioe) {
             AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
             PropertyManager           props  = PropertyManager.getManager();
@@ -457,6 +476,13 @@ public class HangmanController implements FileController {
         }
     }
 
+    private static ExtensionFilter extensionFilter(AppPropertyType description, AppPropertyType extension) {
+        PropertyManager propertyManager = PropertyManager.getManager();
+        return new ExtensionFilter(String.format("%s (*.%s)", propertyManager.getPropertyValue(description),
+                                                 propertyManager.getPropertyValue(extension)),
+                                   String.format("*.%s", propertyManager.getPropertyValue(extension)));
+    }
+
     private void ensureActivatedWorkspace() {
         appTemplate.getWorkspaceComponent().activateWorkspace(appTemplate.getGUI().getAppPane());
     }
@@ -475,19 +501,28 @@ public class HangmanController implements FileController {
     }
 
     /**
-     * A helper method to save work. It saves the work, marks the current work file as saved, notifies the user, and
-     * updates the appropriate controls in the user interface
+     * A helper method to save work. It hands a snapshot of the work over to be saved in the background, marks the
+     * current work file as saved, updates the appropriate controls in the user interface, and notifies the user once
+     * the work has been written.
      *
      * @param target The file to which the work will be saved.
      * @throws IOException
      */
     private void save(Path target) throws IOException {
-        appTemplate.getFileComponent().saveData(appTemplate.getDataComponent(), target);
+        CompletableFuture<Void> saved = getAutoSaver().save(gamedata.snapshot(), target);
         workFile = target;
         setGameState(GameState.INITIALIZED_UNMODIFIED);
-        AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
-        PropertyManager           props  = PropertyManager.getManager();
-        dialog.show(props.getPropertyValue(SAVE_COMPLETED_TITLE), props.getPropertyValue(SAVE_COMPLETED_MESSAGE));
+        saved.whenComplete((result, failure) -> Platform.runLater(() -> {
+            AppMessageDialogSingleton dialog = AppMessageDialogSingleton.getSingleton();
+            PropertyManager           props  = PropertyManager.getManager();
+            if (failure == null) {
+                dialog.show(props.getPropertyValue(SAVE_COMPLETED_TITLE),
+                            props.getPropertyValue(SAVE_COMPLETED_MESSAGE));
+            } else {
+                setGameState(GameState.INITIALIZED_MODIFIED);
+                dialog.show(props.getPropertyValue(SAVE_ERROR_TITLE), props.getPropertyValue(SAVE_ERROR_MESSAGE));
+            }
+        }));
     }
 
     /**
@@ -495,16 +530,13 @@ public class HangmanController implements FileController {
      * reflect the correct state of the game.
      *
      * @param source The source data file from which the game is loaded.
-     * @throws IOException
+     * @throws IOException if the game cannot be loaded, in which case the game being played and its work file are left
+     *                     as they are.
      */
     private void load(Path source) throws IOException {
         // load game data
-        try {
-            appTemplate.getFileComponent().loadData(appTemplate.getDataComponent(), source);
-        }
-        catch(IOException e){
+        appTemplate.getFileComponent().loadData(appTemplate.getDataComponent(), source);
 
-        }
         // set the work file as the file from which the game was loaded
         workFile = source;
 
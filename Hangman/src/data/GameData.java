@@ -2,153 +2,584 @@ package data;
 
 import apptemplate.AppTemplate;
 import components.AppDataComponent;
+import dictionary.DictionaryIndex;
+import dictionary.DictionaryWatcher;
+import dictionary.EntropySolver;
+import dictionary.ReservoirSampler;
+import dictionary.WordCriteria;
+import dictionary.WordPrefetcher;
+import dictionary.WordSource;
+import dictionary.WordSourceRegistry;
+import engine.GameEvent;
+import engine.GuessResult;
+import engine.HangmanEngine;
+import engine.HangmanState;
 import ui.AppMessageDialogSingleton;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Random;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * @author Ritwik Banerjee
  */
 public class GameData implements AppDataComponent {
 
-    public static final  int TOTAL_NUMBER_OF_GUESSES_ALLOWED = 10;
-    private static final int TOTAL_NUMBER_OF_STORED_WORDS    = 330622;
-    public static final int HINT_THRESHOLD                  = 7;
+    public static final  int    TOTAL_NUMBER_OF_GUESSES_ALLOWED = 10;
+    public static final  int    HINT_THRESHOLD                  = 7;
+    public static final  String DEFAULT_DICTIONARY              = "words";
+    private static final String WORDS_RESOURCE                  = "words"; // the directory holding all the dictionaries
+    private static final Random RANDOM                          = new Random();
 
-    private String         targetWord;
-    private Set<Character> goodGuesses;
-    private Set<Character> badGuesses;
-    private int            remainingGuesses;
-    public  AppTemplate    appTemplate;
-    private  boolean        hintState;
+    // the heap memory that the loaded dictionaries may take up together, before the least recently used are evicted
+    private static final long DICTIONARY_MEMORY_BUDGET = 64L << 20;
+
+    // criteria for target words that have enough distinct letters for a hint to be given
+    public static final WordCriteria HINTABLE = WordCriteria.any().withDistinctLetters(HINT_THRESHOLD + 1,
+                                                                                       HangmanEngine.ALPHABET_SIZE);
+
+    // the system property setting the number of target words that are selected ahead of time, so that a new game
+    // never waits for the dictionary; it is WordPrefetcher.DEFAULT_DEPTH if the property is not set
+    public static final String PREFETCH_DEPTH_PROPERTY = "hangman.prefetch.depth";
+
+    // the system property naming an external word list, too large to be loaded, to draw the unconstrained targets from
+    public static final  String CORPUS_PROPERTY   = "hangman.corpus";
+    private static final int    CORPUS_BATCH_SIZE = 256; // the number of target words sampled in each pass over it
+
+    // the indexes over the default dictionary, along with the dictionary itself, replaced as a whole on every reload
+    private static final AtomicReference<DictionaryIndex> dictionaryIndex = new AtomicReference<>();
+
+    private static WordSourceRegistry dictionaries; // all the dictionaries, each loaded on first use
+    private static DictionaryWatcher  watcher;      // reloads the dictionaries when their files change
+    private static WordPrefetcher     prefetcher;   // the target words for the next few games
+
+    private final HangmanEngine   engine;      // the rules of the game, and the state of the game being played
+    private final Set<Character>  goodGuesses; // read-only view of the good guesses, backed by the engine
+    private final Set<Character>  badGuesses;  // read-only view of the bad guesses, backed by the engine
+    private       List<GameEvent> history;     // the events of the game being played, since its start or a checkpoint
+    private       List<GameEvent> historyView; // read-only view of the history, replaced along with it
+    public        AppTemplate     appTemplate;
+
+    // guesses restored before the target word, e.g., from a saved game that lists them first, kept until it is set
+    private int     earlyGoodGuesses;
+    private int     earlyBadGuesses;
+    private boolean earlyHintUsed;
 
     public GameData(AppTemplate appTemplate) {
         this(appTemplate, false);
     }
 
     public GameData(AppTemplate appTemplate, boolean initiateGame) {
-        if (initiateGame) {
-            this.appTemplate = appTemplate;
-            this.targetWord = setTargetWord();
-            this.goodGuesses = new HashSet<>();
-            this.badGuesses = new HashSet<>();
-            this.remainingGuesses = TOTAL_NUMBER_OF_GUESSES_ALLOWED;
-        } else {
-            this.appTemplate = appTemplate;
-        }
+        this.engine = new HangmanEngine(TOTAL_NUMBER_OF_GUESSES_ALLOWED, HINT_THRESHOLD, RANDOM);
+        this.goodGuesses = new GuessView(true);
+        this.badGuesses = new GuessView(false);
+        this.appTemplate = appTemplate;
+        startHistory(null);
+        if (initiateGame)
+            setTargetWord(setTargetWord());
     }
 
     public void init() {
-        this.targetWord = setTargetWord();
-        this.goodGuesses = new HashSet<>();
-        this.badGuesses = new HashSet<>();
-        this.remainingGuesses = TOTAL_NUMBER_OF_GUESSES_ALLOWED;
+        init(WordCriteria.any());
+    }
+
+    /**
+     * Starts a new game with a target word that satisfies the given criteria.
+     *
+     * @param criteria The constraints on the target word, e.g., {@link #HINTABLE}.
+     */
+    public void init(WordCriteria criteria) {
+        setTargetWord(setTargetWord(criteria));
     }
 
     @Override
     public void reset() {
-        this.targetWord = null;
-        hintState = false;
-        this.goodGuesses = new HashSet<>();
-        this.badGuesses = new HashSet<>();
-        this.remainingGuesses = TOTAL_NUMBER_OF_GUESSES_ALLOWED;
+        engine.clear();
+        clearEarlyGuesses();
+        startHistory(null);
         appTemplate.getWorkspaceComponent().reloadWorkspace();
     }
 
     public String getTargetWord() {
-        return targetWord;
+        return engine.getTargetWord();
     }
 
     private String setTargetWord() {
-        URL wordsResource = getClass().getClassLoader().getResource("words/words.txt");
-        assert wordsResource != null;
-        String word = null;
-        while(word == null){
-            int toSkip = new Random().nextInt(TOTAL_NUMBER_OF_STORED_WORDS);
-            try (Stream<String> lines = Files.lines(Paths.get(wordsResource.toURI()))) {
-                word =  lines.skip(toSkip).findFirst().get();
-                if(!word.chars().allMatch(Character::isLetter)) word = null;
-            } catch (IOException | URISyntaxException e) {
+        return setTargetWord(WordCriteria.any());
+    }
+
+    private String setTargetWord(WordCriteria criteria) {
+        WordSource words = getWordSource();
+        try {
+            if (words.size() == 0)
+                throw new NoSuchElementException();
+            return criteria.equals(WordCriteria.any()) ? getPrefetcher().take()
+                                                       : getDictionaryIndex().randomWord(RANDOM, criteria);
+        } catch (NoSuchElementException e) {
+            AppMessageDialogSingleton dialogSingleton = AppMessageDialogSingleton.getSingleton();
+            dialogSingleton.show("ERROR", "Unable to load initial target word.");
+            System.exit(0);
+            return null;
+        } catch (UncheckedIOException e) { // the external word list could not be read
+            e.printStackTrace();
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /**
+     * Starts a new game with a random target word from the named dictionary (word pack), instead of the default one.
+     *
+     * @param dictionary The name of the dictionary, as listed by {@link #getDictionaries()}.
+     * @throws IOException if the dictionary cannot be loaded, or has no words, in which case no new game is started,
+     *                     and the game being played is left as it is.
+     */
+    public void init(String dictionary) throws IOException {
+        WordSource words = getDictionaries().get(dictionary);
+        if (words.size() == 0)
+            throw new IOException(String.format("The dictionary %s has no words.", dictionary));
+        setTargetWord(words.randomWord(RANDOM));
+    }
+
+    /**
+     * Returns the registry of all the dictionaries found under the {@code words} resource folder. Each of them is
+     * loaded only when it is first used, and may be evicted again if too many are loaded at the same time. The folder
+     * is watched, and a dictionary whose file changes is reloaded in the background.
+     *
+     * @return the shared registry of dictionaries.
+     */
+    public static synchronized WordSourceRegistry getDictionaries() {
+        if (dictionaries == null) {
+            URL wordsResource = GameData.class.getClassLoader().getResource(WORDS_RESOURCE);
+            assert wordsResource != null;
+            try {
+                dictionaries = new WordSourceRegistry(Paths.get(wordsResource.toURI()), DICTIONARY_MEMORY_BUDGET);
+                dictionaries.pin(DEFAULT_DICTIONARY); // held on to by the indexes over it
+            } catch (URISyntaxException e) {
                 e.printStackTrace();
                 System.exit(1);
-            } catch(NoSuchElementException e){
-                AppMessageDialogSingleton dialogSingleton = AppMessageDialogSingleton.getSingleton();
-                dialogSingleton.show("ERROR","Unable to load initial target word.");
-                break;
+            }
+            try {
+                watcher = new DictionaryWatcher(dictionaries, GameData::dictionaryChanged);
+            } catch (IOException e) {
+                e.printStackTrace(); // the dictionaries can still be used, they just won't be reloaded
+            }
+        }
+        return dictionaries;
+    }
 
+    /**
+     * Called on the watcher's thread whenever a dictionary has been reloaded. If it is the default dictionary, the
+     * indexes over it are rebuilt right there, and then published in one step, so a game that is being started always
+     * sees either the old dictionary or the new one, but never a half-built index.
+     */
+    private static void dictionaryChanged(String name, WordSource words) {
+        if (!DEFAULT_DICTIONARY.equals(name))
+            return;
+        dictionaryIndex.set(DictionaryIndex.build(words));
+        WordPrefetcher upcoming;
+        synchronized (GameData.class) {
+            upcoming = prefetcher;
+        }
+        if (upcoming != null)
+            upcoming.discard();
+    }
+
+    /**
+     * Returns the default dictionary of target words, loading it on first use. The dictionary is shared by every game
+     * in this JVM, so the word list is read and filtered only once (or again when its file changes).
+     *
+     * @return the shared dictionary of valid target words.
+     */
+    static WordSource getWordSource() {
+        return getDictionaryIndex().getWords();
+    }
+
+    /**
+     * Loads the dictionary and builds the indexes over it ahead of the first game, so that starting a game never has
+     * to wait for them. This is safe to call from any thread.
+     */
+    public static void warmUp() {
+        getDictionaryIndex();
+        getPrefetcher();
+    }
+
+    /**
+     * Stops the background work shared by all the games, i.e., watching the dictionaries and selecting the upcoming
+     * target words, e.g., when the application exits. This is safe to call from any thread, and more than once.
+     */
+    public static synchronized void shutDown() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                e.printStackTrace(); // its thread is a daemon, so it will not keep the application alive anyway
             }
+            watcher = null;
         }
-        if(word == null){
-            System.exit(0);
+        if (prefetcher != null) {
+            prefetcher.shutdown();
+            prefetcher = null;
         }
-        return word;
-        /*int toSkip = new Random().nextInt(TOTAL_NUMBER_OF_STORED_WORDS);
-        try (Stream<String> lines = Files.lines(Paths.get(wordsResource.toURI()))) {
-            return lines.skip(toSkip).findFirst().get();
-        } catch (IOException | URISyntaxException e) {
-            e.printStackTrace();
-            System.exit(1);
-        }*/
+    }
+
+    /**
+     * Returns the queue of target words selected ahead of time, creating it on first use. The words are selected from
+     * the default dictionary, unless the {@value #CORPUS_PROPERTY} system property names an external word list, in
+     * which case they are sampled from that list in batches, by streaming through it. The number of words in the queue
+     * is set by the {@value #PREFETCH_DEPTH_PROPERTY} system property.
+     *
+     * @return the shared queue of upcoming target words.
+     * @throws IllegalArgumentException if the {@value #PREFETCH_DEPTH_PROPERTY} system property is not a positive
+     *                                  number.
+     */
+    static synchronized WordPrefetcher getPrefetcher() {
+        if (prefetcher == null) {
+            int depth = prefetchDepth();
+            String corpus = System.getProperty(CORPUS_PROPERTY);
+            Supplier<String> selector = corpus == null
+                                        ? () -> getWordSource().randomWord(RANDOM)
+                                        : new ReservoirSampler(Paths.get(corpus), RANDOM).selector(CORPUS_BATCH_SIZE);
+            prefetcher = new WordPrefetcher(selector, depth);
+        }
+        return prefetcher;
+    }
+
+    private static int prefetchDepth() {
+        String depth = System.getProperty(PREFETCH_DEPTH_PROPERTY);
+        if (depth == null)
+            return WordPrefetcher.DEFAULT_DEPTH;
+        try {
+            int parsed = Integer.parseInt(depth.trim());
+            if (parsed >= 1)
+                return parsed;
+        } catch (NumberFormatException ignored) { }
+        throw new IllegalArgumentException(String.format("The %s system property must be a positive number, not %s.",
+                                                         PREFETCH_DEPTH_PROPERTY, depth));
+    }
 
-        //throw new GameError("Unable to load initial target word.");
+    /**
+     * Returns the length and distinct-letter indexes over the dictionary, building them on first use. Once built, this
+     * never blocks, even while the dictionary is being reloaded.
+     *
+     * @return the shared indexes over the dictionary of valid target words.
+     */
+    static DictionaryIndex getDictionaryIndex() {
+        DictionaryIndex index = dictionaryIndex.get();
+        if (index != null)
+            return index;
+        synchronized (GameData.class) {
+            if (dictionaryIndex.get() == null) {
+                try {
+                    DictionaryIndex built = DictionaryIndex.build(getDictionaries().get(DEFAULT_DICTIONARY));
+                    dictionaryIndex.compareAndSet(null, built); // a reload that finished meanwhile is newer than this
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    System.exit(1);
+                }
+            }
+            return dictionaryIndex.get();
+        }
     }
 
+    /**
+     * Starts a new game with the given target word, with no guesses made yet.
+     *
+     * @param targetWord The new target word, made up of at most {@value HangmanEngine#MAX_WORD_LENGTH} lowercase
+     *                   letters, or {@code null} if there is no game.
+     * @return this game data.
+     */
     public GameData setTargetWord(String targetWord) {
-        this.targetWord = targetWord;
+        if (targetWord == null) {
+            engine.clear();
+            startHistory(null);
+        } else if (earlyGoodGuesses != 0 || earlyBadGuesses != 0 || earlyHintUsed) {
+            engine.restore(targetWord, earlyGoodGuesses, earlyBadGuesses, earlyHintUsed);
+            checkpoint();
+        } else {
+            engine.newGame(targetWord);
+            startHistory(GameEvent.gameStarted(targetWord));
+        }
+        clearEarlyGuesses();
         return this;
     }
 
+    private void clearEarlyGuesses() {
+        earlyGoodGuesses = 0;
+        earlyBadGuesses = 0;
+        earlyHintUsed = false;
+    }
+
+    /**
+     * Returns the events of the game being played, starting from the event that started it, or from a checkpoint if
+     * the game has been changed in some other way since then (e.g., by {@link #setGoodGuesses(Set)}). The history only
+     * grows until a new sequence of events is started with a new first event, so a saved copy of it can be brought up
+     * to date by appending the events past its end, as long as the first event is still the same one.
+     *
+     * @return a read-only view of the history of the game being played; it is empty if there is no game.
+     */
+    public List<GameEvent> getHistory() {
+        return historyView;
+    }
+
+    /**
+     * Replays the events of a game, e.g., from a saved game, into this game data, in place of the game being played.
+     * The events are replayed on a separate engine first, so if any of them fails, the game being played is left as it
+     * is.
+     *
+     * @param events A sequence of events that starts with a {@link GameEvent#isStart() start}.
+     * @throws IllegalStateException    if any of the events could not have happened at that point of the game.
+     * @throws IllegalArgumentException if a start event has a word that is not a valid target word.
+     */
+    public void replay(List<GameEvent> events) {
+        HangmanEngine   replayed = new HangmanEngine(engine.getAllowedGuesses(), HINT_THRESHOLD, RANDOM);
+        List<GameEvent> game     = new ArrayList<>(); // the events since the last start
+        for (GameEvent event : events) {
+            if (!event.isStart() && replayed.getTargetWord() == null)
+                throw new IllegalStateException(String.format("%s happened before the game was started.", event));
+            event.applyTo(replayed);
+            if (event.isStart())
+                game.clear();
+            game.add(event);
+        }
+
+        engine.restore(replayed.state());
+        clearEarlyGuesses();
+        startHistory(null);
+        history.addAll(game);
+    }
+
+    /**
+     * Copies the game being played, e.g., so that it can be saved on another thread while this one goes on. The copy
+     * shares the events of the history, which are immutable, so it takes as long as the history has events.
+     *
+     * @return a copy of this game data that is independent of it.
+     */
+    public GameData snapshot() {
+        GameData copy = new GameData(appTemplate);
+        copy.engine.restore(engine.state());
+        copy.history.addAll(history);
+        return copy;
+    }
+
+    private void startHistory(GameEvent start) {
+        history = new ArrayList<>();
+        historyView = Collections.unmodifiableList(history);
+        if (start != null)
+            history.add(start);
+    }
+
+    /** Replaces the history with a checkpoint of the current state, after the game has been changed directly. */
+    private void checkpoint() {
+        startHistory(engine.getTargetWord() == null ? null : GameEvent.checkpoint(engine.state()));
+    }
+
+    /** @return the engine applying the rules to the game being played. */
+    public HangmanEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Guesses a letter in the game being played.
+     *
+     * @param c The guessed letter.
+     * @return the outcome of the guess.
+     */
+    public GuessResult guess(char c) {
+        GuessResult result = engine.guess(c);
+        if (result == GuessResult.GOOD || result == GuessResult.BAD)
+            history.add(GameEvent.guess(c));
+        return result;
+    }
+
+    /**
+     * Uses the hint in the game being played.
+     *
+     * @return the revealed letter, which also counts as a bad guess.
+     * @throws IllegalStateException if the hint is not available.
+     */
+    public char hint() {
+        char letter = engine.hint();
+        history.add(GameEvent.hintUsed(letter));
+        return letter;
+    }
+
+    /**
+     * Suggests the next letter to guess in the game being played, from the words of the default dictionary that are
+     * consistent with it so far. Unlike a hint, this reveals nothing about the target word, and costs no guess.
+     *
+     * @return a letter that has not been guessed yet.
+     * @throws IllegalStateException if there is no game being played.
+     */
+    public char suggestGuess() {
+        HangmanState state = engine.state();
+        if (state.getStatus() != HangmanState.Status.IN_PROGRESS)
+            throw new IllegalStateException("There is no game being played.");
+        int guessed = engine.getGoodGuesses() | engine.getBadGuesses();
+        return new EntropySolver(getDictionaryIndex()).bestGuess(state.getPattern(), guessed, engine.getBadGuesses());
+    }
+
+    /**
+     * @param c Any character.
+     * @return the positions at which the letter occurs in the target word, as a mask with bit {@code p} set for
+     * position {@code p}, or {@code 0} if it does not occur in it (or is not a lowercase letter).
+     */
+    public long positionsOf(char c) {
+        return engine.positionsOf(c);
+    }
+
+    /** @return the distinct letters in the target word, as a 26-bit mask (bit {@code i} stands for {@code 'a' + i}). */
+    public int getTargetMask() {
+        return engine.getTargetMask();
+    }
+
+    /**
+     * @param c Any character.
+     * @return {@code true} if the letter has already been guessed, whether or not it was in the target word.
+     */
+    public boolean isGuessed(char c) {
+        return engine.isGuessed(c);
+    }
+
+    /** @return {@code true} if every letter in the target word has been guessed. */
+    public boolean isSolved() {
+        return engine.isSolved();
+    }
+
+    /** @return a read-only view of the good guesses; it always reflects the current state of the game. */
     public Set<Character> getGoodGuesses() {
         return goodGuesses;
     }
 
     public GameData setGoodGuesses(Set<Character> goodGuesses) {
-        this.goodGuesses = goodGuesses;
+        restore(maskOf(goodGuesses), getBadGuessMask(), getHintIsUsed());
         return this;
     }
 
+    /** @return a read-only view of the bad guesses; it always reflects the current state of the game. */
     public Set<Character> getBadGuesses() {
         return badGuesses;
     }
 
     public GameData setBadGuesses(Set<Character> badGuesses) {
-        this.badGuesses = badGuesses;
+        restore(getGoodGuessMask(), maskOf(badGuesses), getHintIsUsed());
         return this;
     }
 
+    /** @return the good guesses, as a 26-bit mask (bit {@code i} stands for {@code 'a' + i}). */
+    public int getGoodGuessMask() {
+        return engine.getTargetWord() == null ? earlyGoodGuesses : engine.getGoodGuesses();
+    }
+
+    /** @return the bad guesses, as a 26-bit mask (bit {@code i} stands for {@code 'a' + i}). */
+    public int getBadGuessMask() {
+        return engine.getTargetWord() == null ? earlyBadGuesses : engine.getBadGuesses();
+    }
+
     public int getRemainingGuesses() {
-        return remainingGuesses;
+        return engine.getRemainingGuesses();
     }
 
+    /** Records a letter as a good guess, without any other effect, e.g., while a saved game is being loaded. */
     public void addGoodGuess(char c) {
-        goodGuesses.add(c);
+        restore(getGoodGuessMask() | HangmanEngine.maskOf(String.valueOf(c)), getBadGuessMask(), getHintIsUsed());
     }
 
+    /** Records a letter as a bad guess, which costs a guess unless it was already recorded as one. */
     public void addBadGuess(char c) {
-        if (!badGuesses.contains(c)) {
-            badGuesses.add(c);
-            remainingGuesses--;
+        restore(getGoodGuessMask(), getBadGuessMask() | HangmanEngine.maskOf(String.valueOf(c)), getHintIsUsed());
+    }
+
+    /** Restores the guesses of the game being played, or keeps them until its target word is set, if it is not yet. */
+    private void restore(int goodGuessMask, int badGuessMask, boolean hintUsed) {
+        if (engine.getTargetWord() == null) {
+            earlyGoodGuesses = goodGuessMask;
+            earlyBadGuesses = badGuessMask;
+            earlyHintUsed = hintUsed;
+        } else {
+            engine.restore(engine.getTargetWord(), goodGuessMask, badGuessMask, hintUsed);
+            checkpoint();
         }
     }
 
+    private static int maskOf(Set<Character> letters) {
+        StringBuilder builder = new StringBuilder(letters.size());
+        for (char c : letters)
+            builder.append(c);
+        return HangmanEngine.maskOf(builder);
+    }
+
     public void reduceRemainingGuess(){
-        --this.remainingGuesses;
+        HangmanState state = engine.state();
+        engine.restore(new HangmanState(state.getTargetWord(), state.getGoodGuesses(), state.getBadGuesses(),
+                                        state.getRemainingGuesses() - 1, state.isHintUsed()));
+        checkpoint();
     }
 
     public boolean getHintIsUsed(){
-        return hintState;
+        return engine.getTargetWord() == null ? earlyHintUsed : engine.isHintUsed();
     }
 
     public void setHintState(boolean state){
-        this.hintState = state;
+        restore(getGoodGuessMask(), getBadGuessMask(), state);
+    }
+
+    /** A read-only view of the good or the bad guesses, as a set of letters in alphabetical order. */
+    private final class GuessView extends AbstractSet<Character> {
+        private final boolean good;
+
+        private GuessView(boolean good) {
+            this.good = good;
+        }
+
+        private int mask() {
+            return good ? getGoodGuessMask() : getBadGuessMask();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Character))
+                return false;
+            char c = (Character) o;
+            return c >= 'a' && c <= 'z' && (mask() & 1 << c - 'a') != 0;
+        }
+
+        @Override
+        public int size() {
+            return Integer.bitCount(mask());
+        }
+
+        @Override
+        public Iterator<Character> iterator() {
+            return new Iterator<Character>() {
+                private int remaining = mask();
+
+                @Override
+                public boolean hasNext() {
+                    return remaining != 0;
+                }
+
+                @Override
+                public Character next() {
+                    if (remaining == 0)
+                        throw new NoSuchElementException();
+                    char c = (char) ('a' + Integer.numberOfTrailingZeros(remaining));
+                    remaining &= remaining - 1;
+                    return c;
+                }
+            };
+        }
     }
 }
@@ -3,102 +3,766 @@ package data;
 import com.fasterxml.jackson.core.*;
 import components.AppDataComponent;
 import components.AppFileComponent;
+import engine.GameEvent;
+import engine.HangmanEngine;
+import engine.HangmanState;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Set;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
 
 /**
+ * Saves a game as an append-only log of its events, one JSON object per line, e.g.,
+ * <pre>
+ *     {"EVENT":"GAME_STARTED","TARGET_WORD":"hangman"}
+ *     {"EVENT":"GUESS","LETTER":"e"}
+ *     {"EVENT":"HINT_USED","LETTER":"g"}
+ * </pre>
+ * Saving the game being played again to the same file only appends the events that happened since it was last saved
+ * there, so a save takes the same time however long the game has been going on. A file is rewritten from scratch only
+ * when it holds some other history, e.g., that of an earlier game. Loading replays the events from the last one that
+ * starts a sequence, which is either the start of a game or a checkpoint with a snapshot of the game. A file in the
+ * older format, with a single snapshot of the game, is loaded as a checkpoint.
+ * <p>
+ * A game saved to a file with the {@value #BINARY_EXTENSION} extension is instead saved as a single snapshot, in a
+ * compact binary layout that is read and written without any parsing:
+ * <pre>
+ *     magic ("HGMB")           4 bytes
+ *     version                  1 byte
+ *     length of target word    1 byte (0 if there is no game)
+ *     target word              one ASCII byte per letter
+ *     good guesses             4 bytes, as a 26-bit mask
+ *     bad guesses              4 bytes, as a 26-bit mask
+ *     remaining guesses        1 byte
+ *     hint used                1 byte (0 or 1)
+ *     CRC-32 of all the above  4 bytes
+ * </pre>
+ * all in big-endian order. Loading tells the formats apart by the magic number, whatever the extension of the file.
+ * <p>
+ * Saves are durable once {@link #saveData(AppDataComponent, Path)} returns, and a crash midway never loses the game
+ * saved before: a file is rewritten by writing a new file and renaming it over the old one, and appended to only by
+ * whole lines, of which loading skips an incomplete last one. A file component can be shared between threads, e.g.,
+ * to save games on a background thread: the syncs are waited for outside its lock, and a rename into a directory is
+ * made durable by a sync of the directory that is shared by all the saves to it at the time. Appends to the event log
+ * share their syncs in the same way. A rewrite, however, writes a new file, which has to be synced on its own before
+ * it is renamed, since there is no way to sync many files at once: saves that rewrite a file, e.g., every binary save,
+ * take one sync of a file each.
+ *
  * @author Ritwik Banerjee
  */
 public class GameDataFile implements AppFileComponent {
 
-    public static final String TARGET_WORD  = "TARGET_WORD";
-    public static final String GOOD_GUESSES = "GOOD_GUESSES";
-    public static final String BAD_GUESSES  = "BAD_GUESSES";
-    public static final String HINT_STATE   = "HINT_STATE";
+    public static final String TARGET_WORD       = "TARGET_WORD";
+    public static final String GOOD_GUESSES      = "GOOD_GUESSES";
+    public static final String BAD_GUESSES       = "BAD_GUESSES";
+    public static final String HINT_STATE        = "HINT_STATE";
+    public static final String EVENT             = "EVENT";
+    public static final String LETTER            = "LETTER";
+    public static final String REMAINING_GUESSES = "REMAINING_GUESSES";
+    public static final String JSON_EXTENSION    = "json";
+    public static final String BINARY_EXTENSION  = "hgm";
+    public static final String CSV_EXTENSION     = "csv";
+    public static final String NDJSON_EXTENSION  = "ndjson";
 
+    private static final int         BINARY_MAGIC   = 0x48474D42; // "HGMB"
+    private static final byte        BINARY_VERSION = 1;
+    private static final int         BINARY_FIXED   = 20; // the size of a binary save, apart from the target word
+    static final         JsonFactory JSON_FACTORY   = new JsonFactory(); // thread-safe, and costly to create
+
+    // the group commits that make renames durable, one per directory that games are saved to
+    private static final Map<Path, GroupCommit> DIRECTORY_COMMITS = new ConcurrentHashMap<>();
+
+    // the file that the history of the game being played was last saved to or loaded from, and how much of it is there
+    private Path        logPath;
+    private GameEvent   loggedStart;  // the first event of the history, as returned by GameData#getHistory()
+    private int         loggedEvents; // the number of its events in the file
+    private long        loggedSize;   // the size of the file, to notice if it has been changed by anyone else
+    private GroupCommit logCommit;    // makes the appends to the file durable, in syncs shared by those at once
+
+    private final Map<Path, Rewrites> rewrites = new HashMap<>(); // the files being rewritten right now
+
+    /**
+     * Saves a game. Only the bookkeeping is done under this file component's lock, so that saves on many threads at
+     * once, e.g., to many files, share their syncs rather than wait for each other's. Of the saves to the same file
+     * that overlap, the one that started last is the one that is left in the file.
+     */
     @Override
-    public void saveData(AppDataComponent data, Path to) {
-        GameData       gamedata    = (GameData) data;
-        Set<Character> goodguesses = gamedata.getGoodGuesses();
-        Set<Character> badguesses  = gamedata.getBadGuesses();
+    public void saveData(AppDataComponent data, Path to) throws IOException {
+        GameData        gamedata = (GameData) data;
+        List<GameEvent> history  = gamedata.getHistory();
+        boolean         binary   = to.getFileName().toString().endsWith("." + BINARY_EXTENSION);
 
-        JsonFactory jsonFactory = new JsonFactory();
+        Appended appended = binary ? null : append(to, history);
+        if (appended != null) {
+            try {
+                appended.commit.await(appended.ticket);
+            } catch (IOException e) {
+                forget(to); // the file may not have the events after all
+                throw e;
+            }
+            return;
+        }
 
-        try (OutputStream out = Files.newOutputStream(to)) {
+        long save      = startRewrite(to);
+        Path temporary = null;
+        try {
+            temporary = writeTemporary(to, encode(gamedata, binary));
+            if (finishRewrite(to, temporary, save, binary ? null : history))
+                temporary = null;
+        } finally {
+            endRewrite(to);
+            if (temporary != null)
+                Files.deleteIfExists(temporary); // a later save has replaced the file already, or this one failed
+        }
+        syncDirectory(to);
+    }
 
-            JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+    /**
+     * Appends the events that happened since the history was last saved to a file, if it is the file it was saved to,
+     * and it has not been changed since.
+     *
+     * @return the append, which is yet to be synced, or {@code null} if the file is to be rewritten.
+     */
+    private synchronized Appended append(Path to, List<GameEvent> history) throws IOException {
+        boolean append = to.equals(logPath) && !rewrites.containsKey(to) && !history.isEmpty() &&
+                         history.get(0) == loggedStart && history.size() >= loggedEvents && Files.isRegularFile(to) &&
+                         Files.size(to) == loggedSize;
+        if (!append)
+            return null;
+        try (FileChannel channel = FileChannel.open(to, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeFully(channel, toJson(history.subList(loggedEvents, history.size())));
+            logged(to, history);
+            return new Appended(logCommit, logCommit.written());
+        } catch (IOException | RuntimeException e) {
+            logPath = null; // a crash midway can only leave an incomplete last line, after which the file is rewritten
+            throw e;
+        }
+    }
 
-            generator.writeStartObject();
+    /** @return the number of the rewrite of the file that is starting, to tell which of those that overlap is last. */
+    private synchronized long startRewrite(Path to) {
+        if (to.equals(logPath))
+            logPath = null; // it is not appended to until it has been rewritten
+        Rewrites file = rewrites.computeIfAbsent(to, path -> new Rewrites());
+        file.running++;
+        return ++file.started;
+    }
 
-            generator.writeStringField(TARGET_WORD, gamedata.getTargetWord());
+    /**
+     * Renames a new version of a file over it, unless a rewrite that started later has done so already, and keeps track
+     * of the history it holds, unless it is a snapshot, or a rewrite that started later is still to come.
+     *
+     * @return whether the file has been replaced.
+     */
+    private synchronized boolean finishRewrite(Path to, Path temporary, long save, List<GameEvent> history)
+            throws IOException {
+        Rewrites file = rewrites.get(to);
+        if (save < file.renamed)
+            return false;
+        Files.move(temporary, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        file.renamed = save;
+        if (history != null && save == file.started)
+            logged(to, history);
+        return true;
+    }
 
-            generator.writeFieldName(GOOD_GUESSES);
-            generator.writeStartArray(goodguesses.size());
-            for (Character c : goodguesses)
-                generator.writeString(c.toString());
-            generator.writeEndArray();
+    private synchronized void endRewrite(Path to) {
+        Rewrites file = rewrites.get(to);
+        if (--file.running == 0)
+            rewrites.remove(to);
+    }
 
-            generator.writeFieldName(BAD_GUESSES);
-            generator.writeStartArray(badguesses.size());
-            for (Character c : badguesses)
-                generator.writeString(c.toString());
-            generator.writeEndArray();
+    private synchronized void forget(Path to) {
+        if (to.equals(logPath))
+            logPath = null;
+    }
 
-            generator.writeBooleanField(HINT_STATE, gamedata.getHintIsUsed());
+    private void logged(Path to, List<GameEvent> history) throws IOException {
+        if (logCommit == null || !to.equals(logPath))
+            logCommit = new GroupCommit(() -> forceFile(to));
+        logPath = to;
+        loggedStart = history.isEmpty() ? null : history.get(0);
+        loggedEvents = history.size();
+        loggedSize = Files.size(to);
+    }
 
-            generator.writeEndObject();
+    /**
+     * Encodes a game the way a save that writes the whole file does, without writing it anywhere, e.g., to compare the
+     * cost of the formats apart from that of the file system.
+     *
+     * @param gamedata The game.
+     * @param binary   Whether the game is to be encoded in the binary format, rather than as an event log.
+     * @return the contents of the saved game.
+     */
+    public static byte[] encode(GameData gamedata, boolean binary) throws IOException {
+        return binary ? toBinary(gamedata.getEngine().state()) : toJson(gamedata.getHistory());
+    }
+
+    private static byte[] toJson(List<GameEvent> events) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * (events.size() + 1));
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.setRootValueSeparator(null);
+            for (GameEvent event : events) {
+                writeEvent(generator, event);
+                generator.writeRaw('\n');
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @return a new file next to the given one, with the bytes written to it and synced, to be renamed over it, so that
+     * a crash at any point leaves either the old file or the new one.
+     */
+    private static Path writeTemporary(Path to, byte[] bytes) throws IOException {
+        Path temporary = temporaryFor(to);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+                                                    StandardOpenOption.WRITE)) {
+            writeFully(channel, bytes);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        return temporary;
+    }
+
+    /** @return a path next to the given file for a new version of it, which does not exist yet, most likely. */
+    static Path temporaryFor(Path to) {
+        return to.toAbsolutePath().resolveSibling(String.format("%s.%016x.tmp", to.getFileName(),
+                                                                ThreadLocalRandom.current().nextLong()));
+    }
 
-            generator.close();
+    /** Makes a rename into the directory of a file durable, in the group commit of that directory. */
+    static void syncDirectory(Path file) throws IOException {
+        Path        directory = file.toAbsolutePath().getParent();
+        GroupCommit commit    = DIRECTORY_COMMITS.computeIfAbsent(directory,
+                                                                  path -> new GroupCommit(() -> forceDirectory(path)));
+        commit.await(commit.written());
+    }
+
+    private static void writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
 
+    private static void forceFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(false); // syncs the file itself, whichever channel its appends were written through
+        }
+    }
+
+    private static void forceDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
         } catch (IOException e) {
-            e.printStackTrace();
-            System.exit(1);
+            return; // some platforms, e.g., Windows, cannot open a directory, and make renames durable by themselves
+        }
+        try (FileChannel opened = channel) {
+            opened.force(true);
+        }
+    }
+
+    /**
+     * @param state A snapshot of a game.
+     * @return the snapshot in the binary layout.
+     */
+    static byte[] toBinary(HangmanState state) {
+        String     word   = state.getTargetWord() == null ? "" : state.getTargetWord();
+        ByteBuffer buffer = ByteBuffer.allocate(BINARY_FIXED + word.length());
+        buffer.putInt(BINARY_MAGIC)
+              .put(BINARY_VERSION)
+              .put((byte) word.length())
+              .put(word.getBytes(StandardCharsets.US_ASCII))
+              .putInt(state.getGoodGuesses())
+              .putInt(state.getBadGuesses())
+              .put((byte) state.getRemainingGuesses())
+              .put((byte) (state.isHintUsed() ? 1 : 0));
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * @param in   A snapshot in the binary layout, and nothing after it.
+     * @param from Where the snapshot comes from, for the error messages.
+     * @return the snapshot.
+     * @throws IOException if the snapshot cannot be read, or is corrupted, or its target word is not a valid one.
+     */
+    static HangmanState fromBinary(DataInputStream in, Object from) throws IOException {
+        byte[] header = new byte[6];
+        in.readFully(header);
+        int    length = header[5] & 0xFF;
+        byte[] rest   = new byte[BINARY_FIXED - header.length + length];
+        in.readFully(rest);
+        if (in.read() >= 0)
+            throw new IOException(String.format("%s has data past the end of the saved game.", from));
+
+        ByteBuffer buffer = ByteBuffer.allocate(header.length + rest.length).put(header).put(rest);
+        CRC32      crc    = new CRC32();
+        crc.update(buffer.array(), 0, buffer.capacity() - Integer.BYTES);
+        if (buffer.getInt(buffer.capacity() - Integer.BYTES) != (int) crc.getValue())
+            throw new IOException(String.format("%s is corrupted: its checksum does not match.", from));
+        if (header[4] != BINARY_VERSION)
+            throw new IOException(String.format("%s is saved in an unknown version (%d).", from, header[4]));
+
+        if (length > HangmanEngine.MAX_WORD_LENGTH)
+            throw new IOException(String.format("%s has a target word of %d letters, more than the %d allowed.", from,
+                                                length, HangmanEngine.MAX_WORD_LENGTH));
+
+        buffer.position(header.length);
+        byte[] word = new byte[length];
+        buffer.get(word);
+        for (byte letter : word) {
+            if (letter < 'a' || letter > 'z')
+                throw new IOException(String.format("%s has a target word that is not made up of lowercase letters.",
+                                                    from));
+        }
+        int     good      = buffer.getInt();
+        int     bad       = buffer.getInt();
+        int     remaining = buffer.get();
+        boolean hintUsed  = buffer.get() != 0;
+        return new HangmanState(length == 0 ? null : new String(word, StandardCharsets.US_ASCII), good, bad, remaining,
+                                hintUsed);
+    }
+
+    private static void writeEvent(JsonGenerator generator, GameEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(EVENT, event.getType().name());
+        switch (event.getType()) {
+            case GAME_STARTED:
+                generator.writeStringField(TARGET_WORD, event.getTargetWord());
+                break;
+            case GUESS:
+            case HINT_USED:
+                generator.writeStringField(LETTER, String.valueOf(event.getLetter()));
+                break;
+            case CHECKPOINT:
+                HangmanState state = event.getState();
+                generator.writeStringField(TARGET_WORD, state.getTargetWord());
+                writeLetters(generator, GOOD_GUESSES, state.getGoodGuesses());
+                writeLetters(generator, BAD_GUESSES, state.getBadGuesses());
+                generator.writeNumberField(REMAINING_GUESSES, state.getRemainingGuesses());
+                generator.writeBooleanField(HINT_STATE, state.isHintUsed());
+                break;
         }
+        generator.writeEndObject();
+    }
+
+    static void writeLetters(JsonGenerator generator, String fieldname, int letters) throws IOException {
+        generator.writeFieldName(fieldname);
+        generator.writeStartArray(Integer.bitCount(letters));
+        for (; letters != 0; letters &= letters - 1)
+            generator.writeString(String.valueOf((char) ('a' + Integer.numberOfTrailingZeros(letters))));
+        generator.writeEndArray();
     }
 
     @Override
-    public void loadData(AppDataComponent data, Path from) throws IOException {
-        GameData gamedata = (GameData) data;
-        gamedata.reset();
-
-        JsonFactory jsonFactory = new JsonFactory();
-        JsonParser  jsonParser  = jsonFactory.createParser(Files.newInputStream(from));
-
-        while (!jsonParser.isClosed()) {
-            JsonToken token = jsonParser.nextToken();
-            if (JsonToken.FIELD_NAME.equals(token)) {
-                String fieldname = jsonParser.getCurrentName();
-                switch (fieldname) {
-                    case TARGET_WORD:
-                        jsonParser.nextToken();
-                        gamedata.setTargetWord(jsonParser.getValueAsString());
+    public synchronized void loadData(AppDataComponent data, Path from) throws IOException {
+        GameData        gamedata = (GameData) data;
+        List<GameEvent> events   = readEvents(from, gamedata.getEngine().getAllowedGuesses());
+        int             start  = events.size() - 1; // the last event that does not depend on any earlier one
+        while (start >= 0 && !events.get(start).isStart())
+            start--;
+        if (start < 0 && !events.isEmpty())
+            throw new IOException(String.format("%s does not record the start of a game.", from));
+        try { // in place of the game being played, which is left as it is if the file does not record a valid game
+            gamedata.replay(events.subList(Math.max(start, 0), events.size()));
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new IOException(String.format("%s does not record a valid game.", from), e);
+        }
+
+        logged(from, gamedata.getHistory());
+        if (!endsWithNewline(from))
+            loggedStart = null; // an older snapshot, or an incomplete last line, which is not appended to but rewritten
+    }
+
+    private static boolean endsWithNewline(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            return channel.size() > 0 && channel.read(last, channel.size() - 1) == 1 && last.get(0) == '\n';
+        }
+    }
+
+    /**
+     * Saves the game being played to a slot of an archive, as a snapshot.
+     *
+     * @param data    The game data.
+     * @param archive The archive.
+     * @param slot    The name of the slot, in which any game saved before is replaced.
+     * @throws IOException if the game cannot be written.
+     */
+    public void saveData(AppDataComponent data, SaveArchive archive, String slot) throws IOException {
+        archive.put(slot, ((GameData) data).getEngine().state());
+    }
+
+    /**
+     * Loads the game saved in a slot of an archive.
+     *
+     * @param data    The game data, in which the game being played is replaced.
+     * @param archive The archive.
+     * @param slot    The name of the slot.
+     * @throws IOException if there is no such slot, or its game cannot be read.
+     */
+    public void loadData(AppDataComponent data, SaveArchive archive, String slot) throws IOException {
+        GameData     gamedata = (GameData) data;
+        HangmanState state    = archive.get(slot);
+        if (state == null)
+            throw new IOException(String.format("There is no game saved in the slot %s.", slot));
+        gamedata.replay(state.getTargetWord() == null ? Collections.emptyList()
+                                                      : Collections.singletonList(GameEvent.checkpoint(state)));
+    }
+
+    /**
+     * Reads all the events saved in a file, e.g., to analyse how the games were played. A file in the binary format
+     * holds a single checkpoint, or no event at all if there was no game.
+     *
+     * @param from           The saved file.
+     * @param allowedGuesses The number of guesses allowed per game, to work out the remaining guesses of a snapshot in
+     *                       the older format, in which they were not saved.
+     * @return the events, in the order in which they happened.
+     * @throws IOException if the file cannot be read, or is not a saved game.
+     */
+    public static List<GameEvent> readEvents(Path from, int allowedGuesses) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(from))) {
+            return readEvents(in, from, allowedGuesses);
+        }
+    }
+
+    /**
+     * Reads the events of a game saved in either format from memory, e.g., from the result of
+     * {@link #encode(GameData, boolean)}. Unlike in a file, an incomplete last line is not skipped.
+     *
+     * @param saved          The contents of a saved game.
+     * @param allowedGuesses The number of wrong guesses allowed in the game.
+     * @return the events of the game, in the order they happened.
+     * @throws IOException if the contents are not a saved game.
+     */
+    public static List<GameEvent> readEvents(byte[] saved, int allowedGuesses) throws IOException {
+        return readEvents(new ByteArrayInputStream(saved), null, allowedGuesses);
+    }
+
+    /** @param from The file the saved game is read from, or {@code null} if it is read from memory. */
+    private static List<GameEvent> readEvents(InputStream in, Path from, int allowedGuesses) throws IOException {
+        in.mark(Integer.BYTES);
+        int magic = 0;
+        for (int i = 0, b; i < Integer.BYTES && (b = in.read()) >= 0; i++)
+            magic = magic << 8 | b;
+        in.reset();
+        if (magic == BINARY_MAGIC) {
+            HangmanState state = fromBinary(new DataInputStream(in), from == null ? "The saved game" : from);
+            return state.getTargetWord() == null ? Collections.emptyList()
+                                                 : Collections.singletonList(GameEvent.checkpoint(state));
+        }
+        return readLog(in, from, allowedGuesses);
+    }
+
+    private static List<GameEvent> readLog(InputStream in, Path from, int allowedGuesses) throws IOException {
+        List<GameEvent> events = new ArrayList<>();
+        long            read   = 0; // where the last event read ends in the file
+        try (JsonParser jsonParser = JSON_FACTORY.createParser(in)) {
+            JsonToken token;
+            while ((token = jsonParser.nextToken()) != null) {
+                if (!JsonToken.START_OBJECT.equals(token))
+                    throw new JsonParseException(jsonParser, "Unable to load JSON data");
+                events.add(readEvent(jsonParser, allowedGuesses));
+                read = jsonParser.getCurrentLocation().getByteOffset();
+            }
+        } catch (JsonProcessingException e) {
+            if (events.isEmpty() || from == null || !isLastLine(from, read))
+                throw e;
+            // the last event was only partly appended, e.g., because the application crashed, and was never saved
+        }
+        return events;
+    }
+
+    /**
+     * Tells whether everything after the given position of a file is on its last line, which is then the remains of an
+     * interrupted append: partly written, or not written at all, e.g., zeros where the file was extended but the line
+     * never reached the disk. Such a line has no line break of its own, which also makes the next save rewrite the file
+     * rather than append to it.
+     *
+     * @param file     An event log.
+     * @param position Where the last event that could be read ends, before the line break after it.
+     */
+    private static boolean isLastLine(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(position)));
+            int         b  = in.read();
+            if (b != '\n')
+                return false; // the last event read was not on a line of its own
+            while ((b = in.read()) >= 0) {
+                if (b == '\n')
+                    return false;
+            }
+            return true;
+        }
+    }
+
+    private static GameEvent readEvent(JsonParser jsonParser, int allowedGuesses) throws IOException {
+        String  type       = GameEvent.Type.CHECKPOINT.name(); // an object without a type is an older snapshot
+        String  targetWord = null;
+        String  letter     = null;
+        int     good       = 0;
+        int     bad        = 0;
+        int     remaining  = -1;
+        boolean hintUsed   = false;
+
+        while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldname = jsonParser.getCurrentName();
+            jsonParser.nextToken();
+            switch (fieldname) {
+                case EVENT:
+                    type = jsonParser.getValueAsString();
+                    break;
+                case TARGET_WORD:
+                    targetWord = jsonParser.getValueAsString();
+                    break;
+                case LETTER:
+                    letter = jsonParser.getValueAsString();
+                    break;
+                case GOOD_GUESSES:
+                    good = readLetters(jsonParser);
+                    break;
+                case BAD_GUESSES:
+                    bad = readLetters(jsonParser);
+                    break;
+                case REMAINING_GUESSES:
+                    remaining = jsonParser.getValueAsInt();
+                    break;
+                case HINT_STATE:
+                    hintUsed = jsonParser.getValueAsBoolean();
+                    break;
+                default:
+                    throw new JsonParseException(jsonParser, "Unable to load JSON data");
+            }
+        }
+
+        try {
+            switch (GameEvent.Type.valueOf(type)) {
+                case GAME_STARTED:
+                    if (targetWord == null)
                         break;
-                    case GOOD_GUESSES:
-                        jsonParser.nextToken();
-                        while (jsonParser.nextToken() != JsonToken.END_ARRAY)
-                            gamedata.addGoodGuess(jsonParser.getText().charAt(0));
+                    return GameEvent.gameStarted(targetWord);
+                case GUESS:
+                    if (letter == null || letter.length() != 1)
                         break;
-                    case BAD_GUESSES:
-                        jsonParser.nextToken();
-                        while (jsonParser.nextToken() != JsonToken.END_ARRAY)
-                            gamedata.addBadGuess(jsonParser.getText().charAt(0));
+                    return GameEvent.guess(letter.charAt(0));
+                case HINT_USED:
+                    if (letter == null || letter.length() != 1)
                         break;
-                    case HINT_STATE:
-                        jsonParser.nextToken();
-                        gamedata.setHintState(jsonParser.getValueAsBoolean());
+                    return GameEvent.hintUsed(letter.charAt(0));
+                case CHECKPOINT:
+                    if (targetWord == null)
                         break;
-                    default:
-                        throw new JsonParseException(jsonParser, "Unable to load JSON data");
-                }
+                    remaining = remaining >= 0 ? remaining : allowedGuesses - Integer.bitCount(bad);
+                    return GameEvent.checkpoint(new HangmanState(targetWord, good, bad, remaining, hintUsed));
             }
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(jsonParser, String.format("Unable to load JSON data: %s", e.getMessage()));
         }
+        throw new JsonParseException(jsonParser, String.format("Unable to load JSON data: incomplete %s", type));
     }
 
-    /** This method will be used if we need to export data into other formats. */
+    private static int readLetters(JsonParser jsonParser) throws IOException {
+        StringBuilder letters = new StringBuilder();
+        while (jsonParser.nextToken() != JsonToken.END_ARRAY)
+            letters.append(jsonParser.getText());
+        try {
+            return HangmanEngine.maskOf(letters);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(jsonParser, String.format("Unable to load JSON data: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Exports the game being played as a record for analysis. See {@link #exportGames(Path, Path, int)}.
+     *
+     * @throws IllegalArgumentException if the file has neither the {@value #CSV_EXTENSION} nor the
+     *                                  {@value #NDJSON_EXTENSION} extension.
+     */
     @Override
-    public void exportData(AppDataComponent data, Path filePath) throws IOException { }
+    public void exportData(AppDataComponent data, Path filePath) throws IOException {
+        HangmanState state = ((GameData) data).getEngine().state();
+        try (GameExporter exporter = new GameExporter(filePath, isCsv(filePath))) {
+            if (state.getTargetWord() != null)
+                exporter.write("", state);
+            exporter.commit();
+        }
+    }
+
+    /**
+     * Exports saved games as records for analysis, like {@link #exportGames(Path, Path, int, BiConsumer)} does, and
+     * reports the games that are skipped on the standard error stream.
+     */
+    public static long exportGames(Path from, Path to, int allowedGuesses) throws IOException {
+        return exportGames(from, to, allowedGuesses,
+                           (source, e) -> System.err.printf("Skipped %s: %s%n", source, e.getMessage()));
+    }
+
+    /**
+     * Exports saved games as records for analysis, one per game, with its state as it was saved and where it comes
+     * from. The records are written in CSV if the file has the {@value #CSV_EXTENSION} extension, and as lines of JSON
+     * if it has the {@value #NDJSON_EXTENSION} extension. The games are read and written one at a time, so the export
+     * takes the same memory however many there are, apart from the slots of an archive, which it keeps in memory
+     * anyway. The records are written to a new file, which replaces the file only once they all have been, so an
+     * export that fails midway leaves the file as it was.
+     * <p>
+     * A game that cannot be read, or is not a valid saved game, is skipped, and the export goes on with the others.
+     *
+     * @param from           A saved game, an archive of saved games, or a directory of both, whose files with the
+     *                       {@value #JSON_EXTENSION}, {@value #BINARY_EXTENSION} or {@value SaveArchive#EXTENSION}
+     *                       extension are exported in no particular order.
+     * @param to             The file to write the records to, which is replaced if it exists.
+     * @param allowedGuesses The number of guesses allowed per game, as for {@link #readEvents(Path, int)}.
+     * @param skipped        Told where every game that has been skipped comes from, as in the records, and why.
+     * @return the number of records written.
+     * @throws IOException              if the directory cannot be listed, or the records cannot be written.
+     * @throws IllegalArgumentException if the file to write the records to has neither the {@value #CSV_EXTENSION}
+     *                                  nor the {@value #NDJSON_EXTENSION} extension.
+     */
+    public static long exportGames(Path from, Path to, int allowedGuesses, BiConsumer<String, IOException> skipped)
+            throws IOException {
+        // replays the games saved as events, one after another
+        HangmanEngine engine = new HangmanEngine(allowedGuesses, HangmanEngine.DEFAULT_HINT_THRESHOLD, new Random());
+        try (GameExporter exporter = new GameExporter(to, isCsv(to))) {
+            if (Files.isDirectory(from)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(from)) {
+                    for (Path file : files) {
+                        if (isSave(file) && Files.isRegularFile(file))
+                            exportFile(file, exporter, engine, allowedGuesses, skipped);
+                    }
+                }
+            } else {
+                exportFile(from, exporter, engine, allowedGuesses, skipped);
+            }
+            exporter.commit();
+            return exporter.getRecords();
+        }
+    }
+
+    /** Exports the games saved in a file, skipping those that cannot be read, but not those that cannot be written. */
+    private static void exportFile(Path file, GameExporter exporter, HangmanEngine engine, int allowedGuesses,
+                                   BiConsumer<String, IOException> skipped) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.endsWith("." + SaveArchive.EXTENSION)) {
+            SaveArchive archive;
+            try {
+                archive = new SaveArchive(file, true);
+            } catch (IOException e) {
+                skipped.accept(name, e);
+                return;
+            }
+            try (SaveArchive opened = archive) {
+                for (String slot : opened.slots()) {
+                    HangmanState state;
+                    try {
+                        state = opened.get(slot);
+                    } catch (IOException e) {
+                        skipped.accept(name + "/" + slot, e);
+                        continue;
+                    }
+                    if (state != null && state.getTargetWord() != null)
+                        exporter.write(name + "/" + slot, state);
+                }
+            }
+            return;
+        }
+
+        HangmanState state;
+        try {
+            state = replay(file, engine, allowedGuesses);
+        } catch (IOException e) {
+            skipped.accept(name, e);
+            return;
+        }
+        if (state != null)
+            exporter.write(name, state);
+    }
+
+    /** @return the game saved in a file as it was last saved, or {@code null} if no game was being played. */
+    private static HangmanState replay(Path file, HangmanEngine engine, int allowedGuesses) throws IOException {
+        List<GameEvent> events;
+        try {
+            events = readEvents(file, allowedGuesses);
+        } catch (JsonProcessingException e) {
+            throw new IOException(String.format("%s is not a saved game.", file), e);
+        }
+        int start = events.size() - 1;
+        while (start >= 0 && !events.get(start).isStart())
+            start--;
+        if (start < 0)
+            return null; // no game was being played
+        engine.clear();
+        try {
+            for (GameEvent event : events.subList(start, events.size()))
+                event.applyTo(engine);
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            throw new IOException(String.format("%s does not record a valid game.", file), e);
+        }
+        return engine.state();
+    }
+
+    private static boolean isSave(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith("." + JSON_EXTENSION) || name.endsWith("." + BINARY_EXTENSION) ||
+               name.endsWith("." + SaveArchive.EXTENSION);
+    }
+
+    private static boolean isCsv(Path file) {
+        String name = file.getFileName().toString();
+        if (name.endsWith("." + CSV_EXTENSION))
+            return true;
+        if (name.endsWith("." + NDJSON_EXTENSION))
+            return false;
+        throw new IllegalArgumentException(String.format("Games are exported to .%s or .%s files, not to %s.",
+                                                         CSV_EXTENSION, NDJSON_EXTENSION, name));
+    }
+
+    /** Events appended to a file, which are durable once the group commit of the file covers their ticket. */
+    private static final class Appended {
+        private final GroupCommit commit;
+        private final long        ticket;
+
+        private Appended(GroupCommit commit, long ticket) {
+            this.commit = commit;
+            this.ticket = ticket;
+        }
+    }
+
+    /** The rewrites of a file that are under way. */
+    private static final class Rewrites {
+        private long started; // the number of rewrites started, which numbers the latest one
+        private long renamed; // the number of the latest rewrite that has been renamed over the file
+        private int  running; // the number of rewrites that have not ended yet
+    }
 }
@@ -0,0 +1,166 @@
+package data;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import engine.HangmanState;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes games as records for analysis, one per line, either in CSV with a header line, or as NDJSON objects, e.g.,
+ * <pre>
+ *     SOURCE,TARGET_WORD,STATUS,GOOD_GUESSES,BAD_GUESSES,REMAINING_GUESSES,HINT_STATE
+ *     game.json,hangman,IN_PROGRESS,aegn,st,8,true
+ *
+ *     {"SOURCE":"game.json","TARGET_WORD":"hangman","STATUS":"IN_PROGRESS","GOOD_GUESSES":["a","e","g","n"],...}
+ * </pre>
+ * Every record is written out as soon as it is handed over, through a fixed-size buffer, so an export takes the same
+ * memory however many games it has. The records go to a new file next to the one they are for, which replaces it only
+ * when the export is {@link #commit() committed}; closing the exporter without committing it discards them.
+ */
+final class GameExporter implements Closeable {
+
+    static final String SOURCE = "SOURCE";
+    static final String STATUS = "STATUS";
+
+    private static final String[] COLUMNS     = {SOURCE, GameDataFile.TARGET_WORD, STATUS, GameDataFile.GOOD_GUESSES,
+                                                 GameDataFile.BAD_GUESSES, GameDataFile.REMAINING_GUESSES,
+                                                 GameDataFile.HINT_STATE};
+    private static final int      BUFFER_SIZE = 1 << 16;
+
+    private final Path          to;
+    private final Path          temporary; // where the records are written until they are committed
+    private final FileChannel   channel;
+    private final Writer        csv;       // null, unless the records are written as CSV
+    private final JsonGenerator json;      // null, unless the records are written as JSON
+    private       long          records;
+    private       boolean       committed;
+
+    /**
+     * @param to  The file to write the records to, which is replaced if it exists, once they are committed.
+     * @param csv Whether to write the records as CSV rather than as JSON.
+     * @throws IOException if the new file cannot be created.
+     */
+    GameExporter(Path to, boolean csv) throws IOException {
+        this.to = to;
+        this.temporary = GameDataFile.temporaryFor(to);
+        this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        try {
+            if (csv) {
+                this.csv = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+                this.json = null;
+                this.csv.write(String.join(",", COLUMNS));
+                this.csv.write('\n');
+            } else {
+                this.csv = null;
+                this.json = GameDataFile.JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+                this.json.setRootValueSeparator(null);
+            }
+        } catch (IOException e) {
+            out.close();
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    /**
+     * @param source Where the game comes from, e.g., the name of its file or slot.
+     * @param state  A snapshot of the game.
+     * @throws IOException if the record cannot be written.
+     */
+    void write(String source, HangmanState state) throws IOException {
+        if (csv != null) {
+            writeCsv(source);
+            csv.write(',');
+            csv.write(state.getTargetWord());
+            csv.write(',');
+            csv.write(state.getStatus().name());
+            csv.write(',');
+            writeLetters(state.getGoodGuesses());
+            csv.write(',');
+            writeLetters(state.getBadGuesses());
+            csv.write(',');
+            csv.write(Integer.toString(state.getRemainingGuesses()));
+            csv.write(',');
+            csv.write(Boolean.toString(state.isHintUsed()));
+            csv.write('\n');
+        } else {
+            json.writeStartObject();
+            json.writeStringField(SOURCE, source);
+            json.writeStringField(GameDataFile.TARGET_WORD, state.getTargetWord());
+            json.writeStringField(STATUS, state.getStatus().name());
+            GameDataFile.writeLetters(json, GameDataFile.GOOD_GUESSES, state.getGoodGuesses());
+            GameDataFile.writeLetters(json, GameDataFile.BAD_GUESSES, state.getBadGuesses());
+            json.writeNumberField(GameDataFile.REMAINING_GUESSES, state.getRemainingGuesses());
+            json.writeBooleanField(GameDataFile.HINT_STATE, state.isHintUsed());
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        records++;
+    }
+
+    /** Writes a field of free text, quoted if it has a comma, a quote or a line break, as RFC 4180 has it. */
+    private void writeCsv(String field) throws IOException {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+            csv.write(field);
+            return;
+        }
+        csv.write('"');
+        csv.write(field.replace("\"", "\"\""));
+        csv.write('"');
+    }
+
+    private void writeLetters(int letters) throws IOException {
+        for (; letters != 0; letters &= letters - 1)
+            csv.write('a' + Integer.numberOfTrailingZeros(letters));
+    }
+
+    /** @return the number of records written so far. */
+    long getRecords() {
+        return records;
+    }
+
+    /**
+     * Makes the records written so far durable, and replaces the file they are for with them, in one step.
+     *
+     * @throws IOException if the records cannot be written or the file cannot be replaced, in which case it is left as
+     *                     it was.
+     */
+    void commit() throws IOException {
+        if (csv != null)
+            csv.flush();
+        else
+            json.flush();
+        channel.force(true);
+        Files.move(temporary, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        GameDataFile.syncDirectory(to);
+    }
+
+    /** Closes the new file, and deletes it unless it has been committed. */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (csv != null)
+                csv.close();
+            else
+                json.close();
+        } finally {
+            if (!committed)
+                Files.deleteIfExists(temporary);
+        }
+    }
+}
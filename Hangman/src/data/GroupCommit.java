@@ -0,0 +1,70 @@
+package data;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+/**
+ * Makes writes durable in groups, so that many writers waiting at the same time share one sync instead of paying for
+ * one each. A writer takes a ticket once its write is done, and then waits for a sync that covers it. If no sync is
+ * going on, the writer runs one itself, which covers every write that took its ticket before it started; otherwise it
+ * waits for the sync going on, and runs the next one only if that one started too early to cover its write. The more
+ * writers there are, the more writes every sync covers.
+ */
+final class GroupCommit {
+
+    /** Makes all the writes done so far durable, e.g., by forcing a file or a directory to the disk. */
+    interface Sync {
+        void sync() throws IOException;
+    }
+
+    private final Sync    sync;
+    private       long    written; // the latest ticket handed out
+    private       long    synced;  // the latest ticket covered by a sync that has completed
+    private       boolean syncing; // whether a sync is going on
+
+    GroupCommit(Sync sync) {
+        this.sync = sync;
+    }
+
+    /** @return a ticket for a write that has just been done, to wait for with {@link #await(long)}. */
+    synchronized long written() {
+        return ++written;
+    }
+
+    /**
+     * Waits until the write with the given ticket is durable, running a sync if needed.
+     *
+     * @param ticket The ticket taken after the write.
+     * @throws IOException if the sync that would have covered the write fails, or the wait is interrupted.
+     */
+    void await(long ticket) throws IOException {
+        long covered;
+        synchronized (this) {
+            while (synced < ticket && syncing) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a write to be synced.");
+                }
+            }
+            if (synced >= ticket)
+                return;
+            syncing = true;
+            covered = written;
+        }
+
+        boolean done = false;
+        try {
+            sync.sync();
+            done = true;
+        } finally {
+            synchronized (this) {
+                syncing = false;
+                if (done)
+                    synced = Math.max(synced, covered);
+                notifyAll(); // on failure, every waiter runs a sync of its own, and sees its own error
+            }
+        }
+    }
+}
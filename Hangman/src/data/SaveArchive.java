@@ -0,0 +1,433 @@
+package data;
+
+import engine.HangmanState;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * Many saved games in one file, each in a named slot. The file starts with a small header, followed by an append-only
+ * region of records, each of which is either a saved game, the removal of a slot, or an index of all the slots:
+ * <pre>
+ *     header:  magic ("HGMA", 4 bytes), version (1 byte), 3 reserved bytes, offset of the latest index (8 bytes)
+ *     record:  kind (1 byte), length of the name (2 bytes), length of the payload (4 bytes),
+ *              CRC-32 of the name and the payload (4 bytes), name (UTF-8), payload
+ * </pre>
+ * The payload of a saved game is its snapshot in the binary layout of {@link GameDataFile}. The payload of an index is
+ * the number of slots (4 bytes), followed by the name (2 + n bytes), the offset (8 bytes) and the length (4 bytes) of
+ * the record of every slot.
+ * <p>
+ * The slots are kept in memory, as a map from their names to where their records are, so saving a game to a slot is
+ * a single positioned write at the end of the file, and loading one is a single positioned read. Opening the archive
+ * reads the latest index, and then only the records written after it. The index is written when the archive is
+ * closed; if it cannot be read, all the records are read instead. A record that was only partly written, e.g.,
+ * because the application crashed, is cut off when the archive is opened again: that is, a damaged record at the end
+ * of the file, or followed by nothing but zeros. A damaged record anywhere else means the archive is corrupted, and it
+ * is not opened, so that the records after it are not lost. Records that have been superseded stay in the file until it
+ * is {@link #compact()}ed.
+ * <p>
+ * A game is durable once {@link #put(String, HangmanState)} returns. The file is synced in a group commit, i.e., one
+ * sync covers every record written by the time it starts, so that many threads saving at once share their syncs. Apart
+ * from the wait for the sync, all the methods are synchronized, so an archive can be shared between threads.
+ */
+public class SaveArchive implements Closeable {
+
+    public static final String EXTENSION = "hga";
+
+    private static final int  MAGIC          = 0x48474D41; // "HGMA"
+    private static final byte VERSION        = 1;
+    private static final int  HEADER_SIZE    = 16;
+    private static final int  INDEX_OFFSET   = 8;          // where the offset of the latest index is in the header
+    private static final int  RECORD_HEADER  = 11;         // the size of a record, apart from the name and payload
+    private static final int  MAX_NAME_BYTES = 0xFFFF;
+    private static final int  TAIL_CHUNK     = 1 << 16;    // how much of a damaged tail is read at a time
+    private static final byte GAME           = 'G';
+    private static final byte REMOVED        = 'R';
+    private static final byte INDEX          = 'I';
+
+    private final Path              file;
+    private final boolean           readOnly;
+    private final Map<String, Slot> slots  = new HashMap<>();
+    private final GroupCommit       commit = new GroupCommit(this::sync); // makes the saves durable
+    private       FileChannel       channel;
+    private       long              end;   // where the next record is written
+    private       long              live;  // the bytes taken up by the latest records of all the slots
+    private       boolean           dirty; // whether records have been written after the latest index
+
+    /**
+     * Opens an archive, or creates an empty one if the file does not exist.
+     *
+     * @param file The archive file.
+     * @throws IOException if the file cannot be opened, or is not an archive.
+     */
+    public SaveArchive(Path file) throws IOException {
+        this(file, false);
+    }
+
+    /**
+     * Opens an archive, e.g., read-only to export its games while it may be in use elsewhere. A read-only archive
+     * leaves the file exactly as it is, and cannot be saved to.
+     *
+     * @param file     The archive file, which must exist if it is opened read-only.
+     * @param readOnly Whether to open the archive read-only.
+     * @throws IOException if the file cannot be opened, or is not an archive.
+     */
+    public SaveArchive(Path file, boolean readOnly) throws IOException {
+        this.file = file;
+        this.readOnly = readOnly;
+        this.channel = readOnly ? FileChannel.open(file, StandardOpenOption.READ)
+                                : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                   StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0 && !readOnly) {
+                writeHeader(channel, 0L);
+                end = HEADER_SIZE;
+            } else
+                readSlots();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readSlots() throws IOException {
+        ByteBuffer header = read(0, HEADER_SIZE);
+        if (header.getInt() != MAGIC)
+            throw new IOException(String.format("%s is not a save archive.", file));
+        if (header.get() != VERSION)
+            throw new IOException(String.format("%s is a save archive of an unknown version.", file));
+
+        long       position = HEADER_SIZE;
+        long       index    = header.getLong(INDEX_OFFSET);
+        ByteBuffer record   = index > 0 ? readRecord(index) : null;
+        if (record != null && record.get(0) == INDEX) { // otherwise, every record is read instead
+            readIndex(record);
+            position = index + record.capacity();
+        }
+        dirty = position < channel.size() || index == 0;
+
+        long size = channel.size();
+        while (position < size) {
+            record = readRecord(position);
+            if (record == null) {
+                if (!isTornTail(position))
+                    throw new IOException(String.format("%s is corrupted at offset %d.", file, position));
+                if (!readOnly) // cut off where an interrupted write left an incomplete record
+                    channel.truncate(position);
+                break;
+            }
+            String name = name(record);
+            if (record.get(0) == GAME)
+                slots.put(name, new Slot(position, record.capacity()));
+            else if (record.get(0) == REMOVED)
+                slots.remove(name);
+            position += record.capacity();
+        }
+        end = position;
+        live = slots.values().stream().mapToLong(slot -> slot.length).sum();
+    }
+
+    private void readIndex(ByteBuffer record) {
+        record.position(RECORD_HEADER + (record.getShort(1) & 0xFFFF));
+        for (int count = record.getInt(); count > 0; count--) {
+            byte[] name = new byte[record.getShort() & 0xFFFF];
+            record.get(name);
+            slots.put(new String(name, StandardCharsets.UTF_8), new Slot(record.getLong(), record.getInt()));
+        }
+    }
+
+    /**
+     * Saves a game to a slot, in place of any game that was saved there before.
+     *
+     * @param slot  The name of the slot.
+     * @param state A snapshot of the game.
+     * @throws IOException if the game cannot be written.
+     */
+    public void put(String slot, HangmanState state) throws IOException {
+        ByteBuffer record = record(GAME, slot, GameDataFile.toBinary(state));
+        long       ticket;
+        synchronized (this) {
+            checkWritable();
+            long offset = end;
+            write(record, offset);
+            live += record.capacity() - length(slots.put(slot, new Slot(offset, record.capacity())));
+            ticket = commit.written();
+        }
+        commit.await(ticket);
+    }
+
+    /**
+     * Loads the game saved in a slot.
+     *
+     * @param slot The name of the slot.
+     * @return a snapshot of the game, or {@code null} if there is no game in the slot.
+     * @throws IOException if the game cannot be read, or is corrupted.
+     */
+    public synchronized HangmanState get(String slot) throws IOException {
+        Slot location = slots.get(slot);
+        if (location == null)
+            return null;
+        ByteBuffer record = read(location.offset, location.length);
+        if (!isValid(record))
+            throw new IOException(String.format("The slot %s in %s is corrupted.", slot, file));
+        int payload = RECORD_HEADER + (record.getShort(1) & 0xFFFF);
+        return GameDataFile.fromBinary(new DataInputStream(new ByteArrayInputStream(record.array(), payload,
+                                                                                    record.capacity() - payload)),
+                                       String.format("The slot %s in %s", slot, file));
+    }
+
+    /**
+     * Removes a slot, along with the game saved in it.
+     *
+     * @param slot The name of the slot.
+     * @return {@code true} if there was such a slot.
+     * @throws IOException if the removal cannot be written.
+     */
+    public boolean remove(String slot) throws IOException {
+        long ticket;
+        synchronized (this) {
+            checkWritable();
+            if (!slots.containsKey(slot))
+                return false;
+            ByteBuffer record = record(REMOVED, slot, new byte[0]);
+            write(record, end);
+            live -= length(slots.remove(slot));
+            ticket = commit.written();
+        }
+        commit.await(ticket);
+        return true;
+    }
+
+    /**
+     * Syncs the records written so far. It is not synchronized, so that writers keep appending while it runs. If the
+     * file has been reopened in the meantime, e.g., by a compaction, the file it was reopened as is synced instead.
+     */
+    private void sync() throws IOException {
+        while (true) {
+            FileChannel current;
+            synchronized (this) {
+                current = channel;
+            }
+            try {
+                current.force(false);
+                return;
+            } catch (ClosedChannelException e) {
+                synchronized (this) {
+                    if (current == channel)
+                        throw e; // closed, not reopened
+                }
+            }
+        }
+    }
+
+    /** @return the names of all the slots, in alphabetical order. */
+    public synchronized SortedSet<String> slots() {
+        return new TreeSet<>(slots.keySet());
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    /** @return the bytes in the file taken up by superseded records and indexes, which compaction mostly reclaims. */
+    public synchronized long getGarbage() {
+        return end - HEADER_SIZE - live;
+    }
+
+    /**
+     * Rewrites the archive with only the latest game of every slot, followed by the index, and replaces the file with
+     * it in one step, so that a crash midway leaves the archive as it was. If the archive cannot be rewritten, it is
+     * left as it was, and can still be used.
+     *
+     * @throws IOException if the archive cannot be rewritten.
+     */
+    public synchronized void compact() throws IOException {
+        checkWritable();
+        Path              compacted = file.resolveSibling(file.getFileName() + ".compacting");
+        Map<String, Slot> moved     = new HashMap<>();
+        boolean           opened    = false; // whether the compacted file is there to be deleted on failure
+        boolean           replaced  = false;
+        try {
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                opened = true;
+                long position = HEADER_SIZE;
+                for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+                    Slot       slot   = entry.getValue();
+                    ByteBuffer record = read(slot.offset, slot.length);
+                    writeFully(out, record, position);
+                    moved.put(entry.getKey(), new Slot(position, slot.length));
+                    position += slot.length;
+                }
+                writeFully(out, index(moved), position);
+                writeHeader(out, position);
+                out.force(true);
+            }
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            replaced = true;
+        } finally {
+            if (opened && !replaced)
+                Files.deleteIfExists(compacted);
+            if (!channel.isOpen()) // the compacted file, or the file as it was if it could not be replaced
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        slots.clear();
+        slots.putAll(moved);
+        end = channel.size();
+        dirty = false;
+    }
+
+    /** Writes the index, if anything has changed, so that the archive opens quickly next time, and closes the file. */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen())
+            return;
+        try {
+            if (!dirty || readOnly)
+                return;
+            long index = end;
+            write(index(slots), index);
+            writeHeader(channel, index);
+            channel.force(true);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void checkWritable() throws IOException {
+        if (readOnly)
+            throw new IOException(String.format("%s is open read-only.", file));
+    }
+
+    private ByteBuffer index(Map<String, Slot> slots) {
+        int size = Integer.BYTES;
+        for (String name : slots.keySet())
+            size += Short.BYTES + name.getBytes(StandardCharsets.UTF_8).length + Long.BYTES + Integer.BYTES;
+        ByteBuffer payload = ByteBuffer.allocate(size).putInt(slots.size());
+        for (Map.Entry<String, Slot> entry : slots.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            payload.putShort((short) name.length).put(name).putLong(entry.getValue().offset)
+                   .putInt(entry.getValue().length);
+        }
+        return record(INDEX, "", payload.array());
+    }
+
+    private static ByteBuffer record(byte kind, String slot, byte[] payload) {
+        byte[] name = slot.getBytes(StandardCharsets.UTF_8);
+        if (kind != INDEX && name.length == 0 || name.length > MAX_NAME_BYTES)
+            throw new IllegalArgumentException(String.format("\"%s\" is not a valid slot name.", slot));
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + name.length + payload.length);
+        record.put(kind).putShort((short) name.length).putInt(payload.length).putInt((int) crc.getValue())
+              .put(name).put(payload).flip();
+        return record;
+    }
+
+    /**
+     * @return whether the damaged record at the given offset can only have been left by an interrupted write of the
+     * last record, i.e., it does not fit in the file, it ends right at the end of the file, or nothing but zeros
+     * follow it, e.g., because the file was extended but the record never reached the disk.
+     */
+    private boolean isTornTail(long offset) throws IOException {
+        long size = channel.size();
+        if (size - offset < RECORD_HEADER)
+            return true;
+        ByteBuffer header = read(offset, RECORD_HEADER);
+        long       length = RECORD_HEADER + (header.getShort(1) & 0xFFFF) + (header.getInt(3) & 0xFFFFFFFFL);
+        if (size - offset <= length)
+            return true;
+        for (long position = offset; position < size; position += TAIL_CHUNK) {
+            ByteBuffer chunk = read(position, (int) Math.min(TAIL_CHUNK, size - position));
+            while (chunk.hasRemaining()) {
+                if (chunk.get() != 0)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return the record at the given offset, or {@code null} if there is no complete and intact record there. */
+    private ByteBuffer readRecord(long offset) throws IOException {
+        if (channel.size() - offset < RECORD_HEADER)
+            return null;
+        ByteBuffer header = read(offset, RECORD_HEADER);
+        long       length = RECORD_HEADER + (header.getShort(1) & 0xFFFF) + (header.getInt(3) & 0xFFFFFFFFL);
+        if (channel.size() - offset < length || length > Integer.MAX_VALUE)
+            return null;
+        ByteBuffer record = read(offset, (int) length);
+        return isValid(record) ? record : null;
+    }
+
+    private static boolean isValid(ByteBuffer record) {
+        byte kind = record.get(0);
+        if (kind != GAME && kind != REMOVED && kind != INDEX)
+            return false;
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER, record.capacity() - RECORD_HEADER);
+        return record.getInt(7) == (int) crc.getValue();
+    }
+
+    private static String name(ByteBuffer record) {
+        return new String(record.array(), RECORD_HEADER, record.getShort(1) & 0xFFFF, StandardCharsets.UTF_8);
+    }
+
+    private static int length(Slot slot) {
+        return slot == null ? 0 : slot.length;
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0)
+                throw new IOException(String.format("%s ends unexpectedly.", file));
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void write(ByteBuffer record, long offset) throws IOException {
+        writeFully(channel, record, offset);
+        end = offset + record.capacity();
+        dirty = true;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+        for (long position = offset; buffer.hasRemaining(); )
+            position += channel.write(buffer, position);
+    }
+
+    private static void writeHeader(FileChannel channel, long index) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).put(VERSION).put(new byte[3]).putLong(index).flip();
+        writeFully(channel, header, 0);
+    }
+
+    /** Where the latest record of a slot is in the file. */
+    private static final class Slot {
+        private final long offset;
+        private final int  length;
+
+        private Slot(long offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package dictionary;
+
+/**
+ * The set of dictionary words that match a query on a {@link DictionaryIndex}. All the words in a set have the same
+ * length, and the set is stored as a bitset over all the words of that length.
+ */
+public final class CandidateSet {
+
+    private final DictionaryIndex index;
+    private final int             length;  // the length of the words
+    private final int[]           words;   // the indices of all the words of this length, in the indexed word source
+    private final byte[]          letters; // the letters of words[i], from 0 to 25, at [i * length, (i + 1) * length)
+    private final long[]          bits;    // bit i is set if words[i] is in this set
+
+    CandidateSet(DictionaryIndex index, int length, int[] words, byte[] letters, long[] bits) {
+        this.index = index;
+        this.length = length;
+        this.words = words;
+        this.letters = letters;
+        this.bits = bits;
+    }
+
+    /** @return the length of the words in this set. */
+    public int getLength() {
+        return length;
+    }
+
+    /** @return the bitset of the words in this set, over all the words of this length; it must not be modified. */
+    long[] bits() {
+        return bits;
+    }
+
+    /** @return the letters of all the words of this length, from 0 to 25, {@link #getLength()} of them per word. */
+    byte[] letters() {
+        return letters;
+    }
+
+    /** @return the number of words in this set. */
+    public int size() {
+        int size = 0;
+        for (long block : bits)
+            size += Long.bitCount(block);
+        return size;
+    }
+
+    /** @return {@code true} if no word matched the query. */
+    public boolean isEmpty() {
+        for (long block : bits) {
+            if (block != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /** @return the indices, in the indexed word source, of all the words in this set. */
+    public int[] indices() {
+        int[] indices = new int[size()];
+        int   count   = 0;
+        for (int block = 0; block < bits.length; block++) {
+            for (long b = bits[block]; b != 0; b &= b - 1)
+                indices[count++] = words[block << 6 | Long.numberOfTrailingZeros(b)];
+        }
+        return indices;
+    }
+
+    /**
+     * @param limit The maximum number of words to return.
+     * @return up to {@code limit} of the words in this set.
+     */
+    public String[] words(int limit) {
+        int[]    indices = indices();
+        String[] words   = new String[Math.min(limit, indices.length)];
+        for (int i = 0; i < words.length; i++)
+            words[i] = index.getWords().wordAt(indices[i]);
+        return words;
+    }
+}
@@ -0,0 +1,178 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A word source backed by a dictionary file produced by the {@link DictionaryCompiler}. Since the words in such a file
+ * have already been normalized, validated, deduplicated and grouped by length, loading it is a single bulk read, and
+ * no per-word work is done at runtime. Within a group, every word has the same length, so the position of a word is
+ * computed directly from its rank and no offset table is needed. Any words longer than {@value #MAX_WORD_LENGTH}
+ * letters, which only a dictionary compiled before that limit was enforced can have, are left out.
+ */
+public class CompiledWordSource implements WordSource {
+
+    private final byte[] data;       // the entire compiled file
+    private final int    lettersAt;  // where the letters of the shortest words begin in the file
+    private final int[]  firstIndex; // firstIndex[l] is the rank of the first word of length l
+    private final int[]  firstByte;  // firstByte[l] is the position in the file of the first word of length l
+    private final int    maxLength;
+    private final int    size;
+    private final long   sourceSize;
+    private final long   sourceModified;
+    private final int    sourceLines;
+    private final int    rejected;
+    private final int    duplicates;
+
+    private CompiledWordSource(byte[] data) throws IOException {
+        ByteBuffer header = ByteBuffer.wrap(data);
+        if (data.length < DictionaryCompiler.HEADER_SIZE || header.getInt() != DictionaryCompiler.MAGIC)
+            throw new IOException("Not a compiled dictionary.");
+        int version = header.getInt();
+        if (version != DictionaryCompiler.VERSION)
+            throw new IOException(String.format("Unsupported compiled dictionary version %d.", version));
+        this.data = data;
+        this.sourceSize = header.getLong();
+        this.sourceModified = header.getLong();
+        this.sourceLines = header.getInt();
+        this.rejected = header.getInt();
+        this.duplicates = header.getInt();
+        int words   = header.getInt();
+        int longest = header.getInt();
+        if (longest < 0 || data.length < DictionaryCompiler.HEADER_SIZE + 4L * (longest + 1))
+            throw new IOException("The compiled dictionary is corrupt.");
+        this.firstIndex = new int[longest + 2];
+        this.firstByte = new int[longest + 2];
+        this.lettersAt = DictionaryCompiler.HEADER_SIZE + 4 * (longest + 1);
+
+        long bytes = lettersAt;
+        for (int length = 0; length <= longest; length++) {
+            int count = header.getInt();
+            firstIndex[length + 1] = firstIndex[length] + count;
+            firstByte[length] = (int) Math.min(bytes, data.length);
+            bytes += (long) count * length;
+        }
+        firstByte[longest + 1] = (int) Math.min(bytes, data.length);
+        if (firstIndex[longest + 1] != words || bytes != data.length)
+            throw new IOException("The compiled dictionary is corrupt.");
+
+        // a dictionary compiled without the length limit may have words too long to be played, which come last
+        this.maxLength = Math.min(longest, MAX_WORD_LENGTH);
+        this.size = firstIndex[maxLength + 1];
+    }
+
+    /**
+     * Loads a compiled dictionary with a single bulk read.
+     *
+     * @param dictionaryFile The path to the compiled dictionary.
+     * @return the loaded word source.
+     * @throws IOException if the file cannot be read, or if it is not a valid compiled dictionary.
+     */
+    public static CompiledWordSource load(Path dictionaryFile) throws IOException {
+        return new CompiledWordSource(Files.readAllBytes(dictionaryFile));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long heapFootprint() {
+        return data.length + 4L * (firstIndex.length + firstByte.length);
+    }
+
+    @Override
+    public String wordAt(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(String.format("Word index %d is out of bounds [0, %d).", index, size));
+        int low = 0, high = maxLength; // the shortest length whose words do not all come before the index
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (firstIndex[middle + 1] <= index)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return wordOfLength(low, index - firstIndex[low]);
+    }
+
+    /** @return the length of the longest word in this dictionary. */
+    public int maxLength() {
+        return maxLength;
+    }
+
+    /** @return the number of words with the given length. */
+    public int countOfLength(int length) {
+        return length < 0 || length > maxLength ? 0 : firstIndex[length + 1] - firstIndex[length];
+    }
+
+    /**
+     * @param length The length of the word.
+     * @param rank   The position of the word among the words of that length, in the range
+     *               {@code [0, countOfLength(length))}.
+     * @return the word of the given length and rank.
+     * @throws IndexOutOfBoundsException if there is no word of the given length and rank.
+     */
+    public String wordOfLength(int length, int rank) {
+        int count = countOfLength(length);
+        if (rank < 0 || rank >= count)
+            throw new IndexOutOfBoundsException(
+                    String.format("Rank %d is out of bounds [0, %d) for words of length %d.", rank, count, length));
+        return new String(data, firstByte[length] + rank * length, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Tells whether a compiled dictionary still matches the word list it was compiled from, judging by the size and
+     * modification time of the word list recorded in its header, without loading the rest of it.
+     *
+     * @param dictionaryFile The path to the compiled dictionary.
+     * @param sourceFile     The path to the word list it was compiled from.
+     * @return {@code false} if the word list exists and has changed since, or if the dictionary is not in the current
+     * format, and {@code true} otherwise, i.e., also if there is no word list to compile it from again.
+     * @throws IOException if either file cannot be examined.
+     */
+    public static boolean isCurrent(Path dictionaryFile, Path sourceFile) throws IOException {
+        if (!Files.isRegularFile(sourceFile))
+            return true;
+        ByteBuffer header = ByteBuffer.allocate(DictionaryCompiler.HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(dictionaryFile, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0)
+                continue;
+        }
+        header.flip();
+        return header.remaining() == DictionaryCompiler.HEADER_SIZE && header.getInt() == DictionaryCompiler.MAGIC &&
+               header.getInt() == DictionaryCompiler.VERSION && header.getLong() == Files.size(sourceFile) &&
+               header.getLong() == Files.getLastModifiedTime(sourceFile).toMillis();
+    }
+
+    /** @return the size, in bytes, of the word list this dictionary was compiled from, when it was compiled. */
+    public long getSourceSize() {
+        return sourceSize;
+    }
+
+    /** @return the modification time, in milliseconds, of the word list this dictionary was compiled from. */
+    public long getSourceModified() {
+        return sourceModified;
+    }
+
+    /** @return the number of lines in the word list this dictionary was compiled from. */
+    public int getSourceLines() {
+        return sourceLines;
+    }
+
+    /** @return the number of lines that were dropped for not being made up entirely of letters. */
+    public int getRejected() {
+        return rejected;
+    }
+
+    /** @return the number of valid lines that were dropped for repeating an earlier word. */
+    public int getDuplicates() {
+        return duplicates;
+    }
+}
@@ -0,0 +1,124 @@
+package dictionary;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Compiles a plain word list (one word per line) into the binary dictionary format read by {@link CompiledWordSource}.
+ * The words are normalized to lowercase, anything that is not made up entirely of letters or that is longer than
+ * {@value WordSource#MAX_WORD_LENGTH} letters is dropped, duplicates are removed, and the remaining words are grouped
+ * by length and sorted within each group. This is meant to be run as a build step, e.g.
+ * <pre>
+ *     java dictionary.DictionaryCompiler resources/words/words.txt resources/words/words.dict
+ * </pre>
+ * The compiled file is laid out as follows (all integers are big-endian):
+ * <ol>
+ * <li>the header: magic number, format version, size and modification time (in milliseconds) of the word list it was
+ * compiled from, number of source lines, number of rejected lines, number of duplicates, number of words, and the
+ * maximum word length {@code m};</li>
+ * <li>{@code m + 1} word counts, one for each length from {@code 0} to {@code m}; and</li>
+ * <li>the letters of all the words, shortest first, with no separators.</li>
+ * </ol>
+ * A compiled dictionary whose word list has since changed is {@link CompiledWordSource#isCurrent(Path, Path) stale},
+ * and is passed over in favour of the word list until it is compiled again.
+ */
+public final class DictionaryCompiler {
+
+    static final int MAGIC       = 0x48444354; // "HDCT"
+    static final int VERSION     = 2;
+    static final int HEADER_SIZE = 7 * 4 + 2 * 8;
+
+    private DictionaryCompiler() { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: java dictionary.DictionaryCompiler <word list> [<compiled dictionary>]");
+            System.exit(1);
+        }
+        Path source = Paths.get(args[0]);
+        Path target = args.length == 2 ? Paths.get(args[1]) : WordSources.compiledFileFor(source);
+        compile(source, target);
+    }
+
+    /**
+     * Compiles the given word list. The compiled dictionary replaces the target in one step, so that a source that
+     * opens it meanwhile sees either the old dictionary or the new one, and never a partly written one.
+     *
+     * @param source The plain word list.
+     * @param target The file to which the compiled dictionary is written.
+     * @throws IOException if the word list cannot be read or the dictionary cannot be written.
+     */
+    public static void compile(Path source, Path target) throws IOException {
+        long sourceSize  = Files.size(source); // taken before reading, so that a change while reading makes it stale
+        long sourceMtime = Files.getLastModifiedTime(source).toMillis();
+        List<TreeSet<String>> groups = new ArrayList<>();
+        int sourceLines = 0, rejected = 0, duplicates = 0, words = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.ISO_8859_1)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sourceLines++;
+                String word = normalize(line);
+                if (word == null) {
+                    rejected++;
+                    continue;
+                }
+                while (groups.size() <= word.length())
+                    groups.add(new TreeSet<>());
+                if (groups.get(word.length()).add(word))
+                    words++;
+                else
+                    duplicates++;
+            }
+        }
+
+        int maxLength = Math.max(groups.size() - 1, 0);
+        ByteArrayOutputStream compiled = new ByteArrayOutputStream(HEADER_SIZE + 4 * (maxLength + 1) + words * 8);
+        try (DataOutputStream out = new DataOutputStream(compiled)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceSize);
+            out.writeLong(sourceMtime);
+            out.writeInt(sourceLines);
+            out.writeInt(rejected);
+            out.writeInt(duplicates);
+            out.writeInt(words);
+            out.writeInt(maxLength);
+            for (int length = 0; length <= maxLength; length++)
+                out.writeInt(length < groups.size() ? groups.get(length).size() : 0);
+            for (TreeSet<String> group : groups) {
+                for (String word : group)
+                    out.writeBytes(word);
+            }
+        }
+        WordSources.replace(target, ByteBuffer.wrap(compiled.toByteArray())); // never seen partly written
+        System.out.printf("%s: %d lines, %d words (%d rejected, %d duplicates), longest word has %d letters%n",
+                          target, sourceLines, words, rejected, duplicates, maxLength);
+    }
+
+    /**
+     * @return the given line in lowercase, or {@code null} if it is not a non-empty word made up entirely of letters,
+     * and no longer than {@value WordSource#MAX_WORD_LENGTH} letters.
+     */
+    private static String normalize(String line) {
+        if (line.isEmpty() || line.length() > WordSource.MAX_WORD_LENGTH)
+            return null;
+        char[] letters = new char[line.length()];
+        for (int i = 0; i < letters.length; i++) {
+            char c = line.charAt(i);
+            if (c > 0x7F || (letters[i] = (char) ResidentWordSource.toLetter((byte) c)) == 0)
+                return null;
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,305 @@
+package dictionary;
+
+import engine.HangmanEngine;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Precomputed indexes over a {@link WordSource}. Every word is placed into a bucket keyed by its length and by the
+ * number of distinct letters in it, so that a word satisfying a set of {@link WordCriteria} can be picked uniformly at
+ * random without scanning the dictionary or resorting to rejection sampling. The buckets matching a set of criteria
+ * are resolved once, and then cached, so that a filtered selection costs the same as an unfiltered one. Only the first
+ * {@value #MAX_CACHED_SELECTIONS} distinct sets of criteria are cached, since the criteria come from the callers and
+ * are not bounded; the game itself only ever uses a couple.
+ * <p>
+ * For every word, the set of letters it contains is also kept, as a 26-bit mask (bit {@code i} stands for the letter
+ * {@code 'a' + i}). Finally, for each word length, there are bitsets over all the words of that length, recording
+ * which letter occurs at which position. These are built on the first {@link #query(String, int)} for that length,
+ * and allow the words matching a partially revealed pattern to be found by intersecting bitsets, instead of comparing
+ * strings.
+ */
+public class DictionaryIndex {
+
+    private static final int ALPHABET_SIZE  = HangmanEngine.ALPHABET_SIZE;
+    private static final int DISTINCT_SLOTS = ALPHABET_SIZE + 1; // a word can have 0 to 26 distinct letters
+
+    // the most selections that are cached; any others are resolved on every pick, which only costs a pass over buckets
+    private static final int MAX_CACHED_SELECTIONS = 64;
+
+    private final WordSource words;
+    private final int        maxLength;
+    private final int[]      letterMasks; // the letters in each word, one bit per letter
+    private final int[][]    buckets;     // buckets[length * DISTINCT_SLOTS + distinct] holds the word indices
+
+    private final ConcurrentMap<WordCriteria, Selection> selections = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<LetterPositions>  positions; // built on demand, one for each length
+
+    private DictionaryIndex(WordSource words, int maxLength, int[] letterMasks, int[][] buckets) {
+        this.words = words;
+        this.maxLength = maxLength;
+        this.letterMasks = letterMasks;
+        this.buckets = buckets;
+        this.positions = new AtomicReferenceArray<>(maxLength + 1);
+    }
+
+    /**
+     * Builds the indexes for the given word source. This reads every word once, so it is meant to be done once, when
+     * the dictionary is loaded.
+     *
+     * @param words The word source to be indexed.
+     * @return the indexes over the word source.
+     */
+    public static DictionaryIndex build(WordSource words) {
+        int   size        = words.size();
+        int[] cells       = new int[size];
+        int[] letterMasks = new int[size];
+        int[] bucketSizes = new int[DISTINCT_SLOTS];
+        int   maxLength   = 0;
+
+        for (int i = 0; i < size; i++) {
+            String word = words.wordAt(i);
+            letterMasks[i] = HangmanEngine.maskOf(word);
+            cells[i] = word.length() * DISTINCT_SLOTS + Integer.bitCount(letterMasks[i]);
+            if (cells[i] >= bucketSizes.length)
+                bucketSizes = Arrays.copyOf(bucketSizes, (word.length() + 1) * DISTINCT_SLOTS);
+            bucketSizes[cells[i]]++;
+            maxLength = Math.max(maxLength, word.length());
+        }
+
+        int[][] buckets = new int[bucketSizes.length][];
+        for (int cell = 0; cell < buckets.length; cell++)
+            buckets[cell] = new int[bucketSizes[cell]];
+        int[] filled = new int[bucketSizes.length];
+        for (int i = 0; i < size; i++)
+            buckets[cells[i]][filled[cells[i]]++] = i;
+
+        return new DictionaryIndex(words, maxLength, letterMasks, buckets);
+    }
+
+    /** @return the indexed word source. */
+    public WordSource getWords() {
+        return words;
+    }
+
+    /** @return the length of the longest word in the dictionary. */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * @param index The index of a word in the indexed word source.
+     * @return the number of distinct letters in the word.
+     */
+    public int distinctLetters(int index) {
+        return Integer.bitCount(letterMasks[index]);
+    }
+
+    /**
+     * @param index The index of a word in the indexed word source.
+     * @return the letters in the word, as a 26-bit mask.
+     */
+    public int letterMask(int index) {
+        return letterMasks[index];
+    }
+
+    /**
+     * Finds all the words that are consistent with a partially revealed target word. A word matches if it has the
+     * letter shown at every revealed position, if none of the revealed letters occurs at any of the other positions
+     * (since revealing a letter reveals all its occurrences), and if it contains none of the excluded letters.
+     *
+     * @param pattern  The target word as revealed so far, with {@code '_'} at every position that is not revealed,
+     *                 e.g., {@code "_a__e_"}.
+     * @param excluded The letters known not to be in the word, as a 26-bit mask.
+     * @return the set of matching words.
+     * @throws IllegalArgumentException if the pattern has any character other than {@code '_'} and lowercase letters.
+     */
+    public CandidateSet query(String pattern, int excluded) {
+        int length = pattern.length();
+        for (int p = 0; p < length; p++) {
+            char c = pattern.charAt(p);
+            if (c != '_' && (c < 'a' || c > 'z'))
+                throw new IllegalArgumentException(
+                        String.format("'%c' in \"%s\" is neither '_' nor a lowercase letter.", c, pattern));
+        }
+        if (length > maxLength)
+            return new CandidateSet(this, length, new int[0], new byte[0], new long[0]);
+
+        LetterPositions index    = positionsFor(length);
+        long[]          matching = new long[index.words.length + 63 >>> 6];
+        int             revealed = 0;
+        for (int p = 0; p < length; p++) {
+            if (pattern.charAt(p) != '_')
+                revealed |= 1 << (pattern.charAt(p) - 'a');
+        }
+
+        fill(matching, index.words.length);
+        for (int p = 0; p < length; p++) {
+            char c = pattern.charAt(p);
+            if (c != '_') {
+                and(matching, index.positional[p * ALPHABET_SIZE + c - 'a']);
+            } else {
+                for (int letters = revealed; letters != 0; letters &= letters - 1)
+                    andNot(matching, index.positional[p * ALPHABET_SIZE + Integer.numberOfTrailingZeros(letters)]);
+            }
+        }
+        for (int letters = excluded & ~revealed; letters != 0; letters &= letters - 1)
+            andNot(matching, index.containing[Integer.numberOfTrailingZeros(letters)]);
+
+        return new CandidateSet(this, length, index.words, index.letters, matching);
+    }
+
+    private static void fill(long[] bits, int count) {
+        Arrays.fill(bits, -1L);
+        if ((count & 63) != 0)
+            bits[bits.length - 1] = (1L << count) - 1; // clear the bits past the last word
+    }
+
+    private static void and(long[] bits, long[] other) {
+        for (int i = 0; i < bits.length; i++)
+            bits[i] &= other[i];
+    }
+
+    private static void andNot(long[] bits, long[] other) {
+        for (int i = 0; i < bits.length; i++)
+            bits[i] &= ~other[i];
+    }
+
+    private LetterPositions positionsFor(int length) {
+        LetterPositions index = positions.get(length);
+        if (index == null) {
+            index = new LetterPositions(length);
+            if (!positions.compareAndSet(length, null, index))
+                index = positions.get(length);
+        }
+        return index;
+    }
+
+    /**
+     * @param criteria The constraints on the word.
+     * @return the number of words in the dictionary that satisfy the given criteria.
+     */
+    public int count(WordCriteria criteria) {
+        return selectionFor(criteria).total;
+    }
+
+    /**
+     * Picks a word satisfying the given criteria uniformly at random.
+     *
+     * @param random   The source of randomness.
+     * @param criteria The constraints on the word.
+     * @return the index, in the indexed word source, of a random word satisfying the criteria.
+     * @throws NoSuchElementException if no word in the dictionary satisfies the criteria.
+     */
+    public int randomIndex(Random random, WordCriteria criteria) {
+        Selection selection = selectionFor(criteria);
+        if (selection.total == 0)
+            throw new NoSuchElementException(String.format("No word in the dictionary has %s.", criteria));
+
+        int rank = random.nextInt(selection.total);
+        int low  = 0, high = selection.cells.length - 1;
+        while (low < high) { // find the bucket containing the rank-th matching word
+            int mid = (low + high + 1) >>> 1;
+            if (selection.starts[mid] <= rank)
+                low = mid;
+            else
+                high = mid - 1;
+        }
+        return buckets[selection.cells[low]][rank - selection.starts[low]];
+    }
+
+    /**
+     * Picks a word satisfying the given criteria uniformly at random.
+     *
+     * @param random   The source of randomness.
+     * @param criteria The constraints on the word.
+     * @return a random word satisfying the criteria.
+     * @throws NoSuchElementException if no word in the dictionary satisfies the criteria.
+     */
+    public String randomWord(Random random, WordCriteria criteria) {
+        return words.wordAt(randomIndex(random, criteria));
+    }
+
+    private Selection selectionFor(WordCriteria criteria) {
+        Selection selection = selections.get(criteria);
+        if (selection == null) {
+            selection = new Selection(criteria);
+            if (selections.size() < MAX_CACHED_SELECTIONS) { // may overshoot by a few under contention, which is fine
+                Selection previous = selections.putIfAbsent(criteria, selection);
+                if (previous != null)
+                    selection = previous;
+            }
+        }
+        return selection;
+    }
+
+    /** The bitsets recording which letters occur where, across all the words of one length. */
+    private final class LetterPositions {
+        private final int[]    words;      // the indices of all the words of this length
+        private final byte[]   letters;    // the letters of words[i], 0 to 25, at [i * length, (i + 1) * length)
+        private final long[][] positional; // positional[p * 26 + c] has bit i set if words[i] has letter c at p
+        private final long[][] containing; // containing[c] has bit i set if words[i] has letter c anywhere
+
+        private LetterPositions(int length) {
+            int count = 0;
+            for (int distinct = 0; distinct < DISTINCT_SLOTS; distinct++)
+                count += buckets[length * DISTINCT_SLOTS + distinct].length;
+            this.words = new int[count];
+            count = 0;
+            for (int distinct = 0; distinct < DISTINCT_SLOTS; distinct++) {
+                int[] bucket = buckets[length * DISTINCT_SLOTS + distinct];
+                System.arraycopy(bucket, 0, words, count, bucket.length);
+                count += bucket.length;
+            }
+
+            int blocks = count + 63 >>> 6;
+            this.letters = new byte[count * length];
+            this.positional = new long[length * ALPHABET_SIZE][blocks];
+            this.containing = new long[ALPHABET_SIZE][blocks];
+            for (int i = 0; i < count; i++) {
+                String word = DictionaryIndex.this.words.wordAt(words[i]);
+                long   bit  = 1L << i;
+                for (int p = 0; p < length; p++) {
+                    letters[i * length + p] = (byte) (word.charAt(p) - 'a');
+                    positional[p * ALPHABET_SIZE + word.charAt(p) - 'a'][i >>> 6] |= bit;
+                }
+                for (int letters = letterMasks[words[i]]; letters != 0; letters &= letters - 1)
+                    containing[Integer.numberOfTrailingZeros(letters)][i >>> 6] |= bit;
+            }
+        }
+    }
+
+    /** The non-empty buckets matching a set of criteria, along with the rank of the first word in each of them. */
+    private final class Selection {
+        private final int[] cells;
+        private final int[] starts;
+        private final int   total;
+
+        private Selection(WordCriteria criteria) {
+            int[] matching = new int[buckets.length];
+            int[] offsets  = new int[buckets.length];
+            int   count    = 0, sum = 0;
+            int   fromLength   = Math.max(criteria.getMinLength(), 0);
+            int   toLength     = Math.min(criteria.getMaxLength(), maxLength);
+            int   fromDistinct = Math.max(criteria.getMinDistinct(), 0);
+            int   toDistinct   = Math.min(criteria.getMaxDistinct(), ALPHABET_SIZE);
+            for (int length = fromLength; length <= toLength; length++) {
+                for (int distinct = fromDistinct; distinct <= toDistinct; distinct++) {
+                    int cell = length * DISTINCT_SLOTS + distinct;
+                    if (cell < buckets.length && buckets[cell].length > 0) {
+                        matching[count] = cell;
+                        offsets[count++] = sum;
+                        sum += buckets[cell].length;
+                    }
+                }
+            }
+            this.cells = Arrays.copyOf(matching, count);
+            this.starts = Arrays.copyOf(offsets, count);
+            this.total = sum;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches the directory of a {@link WordSourceRegistry}, and reloads a loaded dictionary whenever one of its files is
+ * created or modified; a dictionary that is not loaded is left to be loaded when it is next asked for. If events were
+ * lost, every loaded dictionary is reloaded, since any of them may have changed. Since a file that is being written
+ * usually produces a burst of events, changes are only acted upon once the directory has been quiet for a short while.
+ * Everything happens on a background thread, and a dictionary that fails to reload (e.g., because it is still being
+ * written) is left as it was.
+ * <p>
+ * Files may be rewritten in place as well as replaced: a mapped dictionary reads from a snapshot of its word list, and
+ * a compiled dictionary whose word list has changed is passed over until it is compiled again.
+ */
+public class DictionaryWatcher implements Closeable {
+
+    private static final long QUIET_PERIOD_MILLIS = 250;
+
+    private final WordSourceRegistry               registry;
+    private final BiConsumer<String, WordSource>   listener; // told about every dictionary that has been reloaded
+    private final WatchService                     watchService;
+    private final Thread                           thread;
+
+    /**
+     * Starts watching the registry's directory.
+     *
+     * @param registry The registry whose dictionaries are to be reloaded when they change.
+     * @param listener Told the name and the new version of every dictionary that has been reloaded. It is called on
+     *                 the watcher's thread.
+     * @throws IOException if the directory cannot be watched.
+     */
+    public DictionaryWatcher(WordSourceRegistry registry, BiConsumer<String, WordSource> listener) throws IOException {
+        this.registry = registry;
+        this.listener = listener;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        registry.getDirectory().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "dictionary-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                Set<String> changed    = new LinkedHashSet<>();
+                boolean     overflowed = false;
+                WatchKey    key        = watchService.take();
+                while (key != null) { // collect everything that changes until the directory goes quiet
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW) {
+                            overflowed = true;
+                            continue;
+                        }
+                        String name = registry.nameOf((Path) event.context());
+                        if (name != null)
+                            changed.add(name);
+                    }
+                    key.reset();
+                    key = watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (overflowed) // some changes went unreported
+                    changed.addAll(registry.getLoadedNames());
+                for (String name : changed) {
+                    if (registry.isLoaded(name))
+                        reload(name);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // the watcher has been closed
+        }
+    }
+
+    private void reload(String name) {
+        try {
+            listener.accept(name, registry.reload(name));
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace(); // keep the version that was loaded before
+        }
+    }
+
+    /** Stops watching the directory. */
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        watchService.close();
+    }
+}
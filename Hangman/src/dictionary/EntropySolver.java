@@ -0,0 +1,183 @@
+package dictionary;
+
+import engine.HangmanEngine;
+
+import java.util.Arrays;
+
+/**
+ * Suggests the next letter to guess, given the state of a game, by looking at every dictionary word that is still
+ * consistent with it. Guessing a letter splits these candidates into groups by the positions at which the letter
+ * would be revealed (including the group in which it is not revealed at all), and the letter whose split has the
+ * highest entropy is expected to narrow the candidates down the most. Ties are broken in favour of the letter that is
+ * most likely to be in the word.
+ * <p>
+ * The candidates come from {@link DictionaryIndex#query(String, int)} as a bitset, and the groups for all the letters
+ * are counted in a single pass over the candidates, so nothing is allocated per candidate. A solver keeps scratch
+ * space between calls, so each thread should use its own.
+ */
+public class EntropySolver {
+
+    private static final int    ALPHABET_SIZE = HangmanEngine.ALPHABET_SIZE;
+    private static final String FALLBACK      = "etaoinsrhldcumfpgwybvkxjqz"; // for words not in the dictionary
+
+    private final DictionaryIndex index;
+    private final long[]          positions = new long[ALPHABET_SIZE]; // where each letter is in the current word
+    private final int[]           present   = new int[ALPHABET_SIZE];  // the candidates that contain each letter
+    private final double[]        scores    = new double[ALPHABET_SIZE];
+
+    // an open-addressing hash table counting the candidates for each (letter, positions) group
+    private byte[] groupLetters   = new byte[1 << 10];
+    private long[] groupPositions = new long[1 << 10];
+    private int[]  groupCounts    = new int[1 << 10];
+    private int    groups;
+
+    /** @param index The indexes over the dictionary from which the target words are drawn. */
+    public EntropySolver(DictionaryIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Suggests the best letter to guess next.
+     *
+     * @param pattern The target word as revealed so far, with {@code '_'} at every position that is not revealed.
+     * @param guessed The letters guessed so far, as a 26-bit mask (bit {@code i} stands for {@code 'a' + i}).
+     * @param bad     The guessed letters that are not in the target word, as a 26-bit mask.
+     * @return the suggested letter, which has not been guessed yet.
+     * @throws IllegalStateException if every letter has been guessed.
+     */
+    public char bestGuess(String pattern, int guessed, int bad) {
+        return bestGuess(index.query(pattern, bad), guessed);
+    }
+
+    /**
+     * Suggests the best letter to guess next.
+     *
+     * @param candidates The words that are consistent with the game so far.
+     * @param guessed    The letters guessed so far, as a 26-bit mask.
+     * @return the suggested letter, which has not been guessed yet.
+     * @throws IllegalStateException if every letter has been guessed.
+     */
+    public char bestGuess(CandidateSet candidates, int guessed) {
+        int unguessed = ~guessed & (1 << ALPHABET_SIZE) - 1;
+        if (unguessed == 0)
+            throw new IllegalStateException("Every letter has already been guessed.");
+
+        score(candidates, guessed);
+        int best = -1;
+        for (int letters = unguessed; letters != 0; letters &= letters - 1) {
+            int c = Integer.numberOfTrailingZeros(letters);
+            if (present[c] == 0)
+                continue; // no candidate has it, so guessing it is certain to be wrong
+            if (best < 0 || scores[c] > scores[best] || scores[c] == scores[best] && present[c] > present[best])
+                best = c;
+        }
+        if (best >= 0)
+            return (char) ('a' + best);
+
+        for (int i = 0; i < FALLBACK.length(); i++) { // the target word is not in the dictionary
+            if ((unguessed & 1 << FALLBACK.charAt(i) - 'a') != 0)
+                return FALLBACK.charAt(i);
+        }
+        throw new AssertionError();
+    }
+
+    /**
+     * Computes the expected information gain, in bits, of guessing each letter next.
+     *
+     * @param candidates The words that are consistent with the game so far.
+     * @param guessed    The letters guessed so far, as a 26-bit mask; their scores are left at {@code 0}.
+     * @return the score of every letter, indexed from {@code 0} for {@code 'a'}. The array is reused by the next call.
+     */
+    public double[] score(CandidateSet candidates, int guessed) {
+        int    length  = candidates.getLength();
+        byte[] letters = candidates.letters();
+        long[] bits    = candidates.bits();
+        Arrays.fill(present, 0);
+        Arrays.fill(scores, 0.0);
+        Arrays.fill(groupCounts, 0);
+        groups = 0;
+
+        int total = 0;
+        for (int block = 0; block < bits.length; block++) {
+            for (long b = bits[block]; b != 0; b &= b - 1) {
+                int i     = block << 6 | Long.numberOfTrailingZeros(b);
+                int found = 0; // the unguessed letters in this word
+                for (int p = 0, at = i * length; p < length; p++, at++) {
+                    int c = letters[at];
+                    if ((guessed & 1 << c) != 0)
+                        continue;
+                    if ((found & 1 << c) == 0) {
+                        found |= 1 << c;
+                        positions[c] = 0;
+                    }
+                    positions[c] |= 1L << p;
+                }
+                for (int rest = found; rest != 0; rest &= rest - 1) {
+                    int c = Integer.numberOfTrailingZeros(rest);
+                    present[c]++;
+                    count(c, positions[c]);
+                }
+                total++;
+            }
+        }
+        if (total == 0)
+            return scores;
+
+        for (int slot = 0; slot < groupCounts.length; slot++) {
+            if (groupCounts[slot] > 0)
+                scores[groupLetters[slot]] -= plogp(groupCounts[slot], total);
+        }
+        for (int c = 0; c < ALPHABET_SIZE; c++) {
+            if ((guessed & 1 << c) == 0 && total > present[c])
+                scores[c] -= plogp(total - present[c], total); // the group in which the letter is not revealed
+        }
+        return scores;
+    }
+
+    private static double plogp(int count, int total) {
+        double p = (double) count / total;
+        return p * Math.log(p) / Math.log(2);
+    }
+
+    private void count(int letter, long where) {
+        int mask = groupCounts.length - 1;
+        int slot = hash(letter, where) & mask;
+        while (groupCounts[slot] > 0) {
+            if (groupLetters[slot] == letter && groupPositions[slot] == where) {
+                groupCounts[slot]++;
+                return;
+            }
+            slot = slot + 1 & mask;
+        }
+        groupLetters[slot] = (byte) letter;
+        groupPositions[slot] = where;
+        groupCounts[slot] = 1;
+        if (++groups * 2 > groupCounts.length)
+            rehash();
+    }
+
+    private void rehash() {
+        byte[] oldLetters   = groupLetters;
+        long[] oldPositions = groupPositions;
+        int[]  oldCounts    = groupCounts;
+        groupLetters = new byte[oldCounts.length * 2];
+        groupPositions = new long[oldCounts.length * 2];
+        groupCounts = new int[oldCounts.length * 2];
+        int mask = groupCounts.length - 1;
+        for (int old = 0; old < oldCounts.length; old++) {
+            if (oldCounts[old] == 0)
+                continue;
+            int slot = hash(oldLetters[old], oldPositions[old]) & mask;
+            while (groupCounts[slot] > 0)
+                slot = slot + 1 & mask;
+            groupLetters[slot] = oldLetters[old];
+            groupPositions[slot] = oldPositions[old];
+            groupCounts[slot] = oldCounts[old];
+        }
+    }
+
+    private static int hash(int letter, long where) {
+        long h = where * 0x9E3779B97F4A7C15L + letter * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ h >>> 32);
+    }
+}
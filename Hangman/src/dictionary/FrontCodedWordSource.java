@@ -0,0 +1,196 @@
+package dictionary;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A word source that stores the words in sorted order, front-coded in blocks of {@value #BLOCK_SIZE}. The first word in
+ * every block is stored in full, and every other word is stored as the length of the prefix it shares with the word
+ * before it, followed by the rest of its letters. Since neighbouring words in a sorted dictionary tend to share long
+ * prefixes, this takes up much less memory than storing every word in full. A word is accessed by its rank in the
+ * sorted order by decoding at most one block, and the words starting with a given prefix are found by binary search
+ * over the first words of the blocks.
+ */
+public class FrontCodedWordSource implements WordSource {
+
+    public static final int BLOCK_SIZE = 16;
+
+    private final byte[] data;         // the encoded blocks, back to back
+    private final int[]  blockOffsets; // where each block begins in the data
+    private final int    size;
+    private final int    maxLength;
+
+    private FrontCodedWordSource(byte[] data, int[] blockOffsets, int size, int maxLength) {
+        this.data = data;
+        this.blockOffsets = blockOffsets;
+        this.size = size;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Loads a plain word list (one word per line) and front-codes it.
+     *
+     * @param wordFile The path to the word list.
+     * @return the front-coded word source.
+     * @throws IOException if the word list cannot be read.
+     */
+    public static FrontCodedWordSource load(Path wordFile) throws IOException {
+        return build(ResidentWordSource.load(wordFile));
+    }
+
+    /**
+     * Front-codes the words of another source. The words are sorted, and duplicates and words longer than
+     * {@value WordSource#MAX_WORD_LENGTH} letters are removed, which also keeps every length within a byte.
+     *
+     * @param source The source of the words.
+     * @return the front-coded word source.
+     */
+    public static FrontCodedWordSource build(WordSource source) {
+        String[] sorted = new String[source.size()];
+        for (int i = 0; i < sorted.length; i++)
+            sorted[i] = source.wordAt(i);
+        Arrays.sort(sorted);
+
+        ByteArrayOutputStream out       = new ByteArrayOutputStream(sorted.length * 4);
+        List<Integer>         offsets   = new ArrayList<>();
+        String                previous  = null;
+        int                   size      = 0;
+        int                   maxLength = 0;
+        for (String word : sorted) {
+            if (word.equals(previous) || word.length() > MAX_WORD_LENGTH)
+                continue;
+            byte[] letters = word.getBytes(StandardCharsets.US_ASCII);
+            if (size % BLOCK_SIZE == 0) {
+                offsets.add(out.size());
+                out.write(letters.length);
+                out.write(letters, 0, letters.length);
+            } else {
+                int shared = 0;
+                int common = Math.min(letters.length, previous.length());
+                while (shared < common && letters[shared] == previous.charAt(shared))
+                    shared++;
+                out.write(shared);
+                out.write(letters.length - shared);
+                out.write(letters, shared, letters.length - shared);
+            }
+            previous = word;
+            maxLength = Math.max(maxLength, letters.length);
+            size++;
+        }
+
+        int[] blockOffsets = new int[offsets.size()];
+        for (int i = 0; i < blockOffsets.length; i++)
+            blockOffsets[i] = offsets.get(i);
+        return new FrontCodedWordSource(out.toByteArray(), blockOffsets, size, maxLength);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long heapFootprint() {
+        return data.length + 4L * blockOffsets.length;
+    }
+
+    /**
+     * @param index The rank of the word in sorted order, in the range {@code [0, size())}.
+     * @return the word with the given rank.
+     */
+    @Override
+    public String wordAt(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(String.format("Word index %d is out of bounds [0, %d).", index, size));
+        byte[] word   = new byte[maxLength];
+        int    length = decode(index / BLOCK_SIZE, index % BLOCK_SIZE, word);
+        return new String(word, 0, length, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Decodes the words of a block, up to the given one, into a buffer.
+     *
+     * @return the length of the decoded word.
+     */
+    private int decode(int block, int position, byte[] word) {
+        int offset = blockOffsets[block];
+        int length = data[offset++] & 0xFF;
+        System.arraycopy(data, offset, word, 0, length);
+        offset += length;
+        for (int i = 0; i < position; i++) {
+            int shared = data[offset++] & 0xFF;
+            int suffix = data[offset++] & 0xFF;
+            System.arraycopy(data, offset, word, shared, suffix);
+            offset += suffix;
+            length = shared + suffix;
+        }
+        return length;
+    }
+
+    /**
+     * @param key Any string of lowercase letters.
+     * @return the rank of the first word that is not less than the key, or {@link #size()} if there is none.
+     */
+    public int lowerBound(String key) {
+        byte[] target = key.getBytes(StandardCharsets.US_ASCII);
+        byte[] word   = new byte[maxLength];
+
+        // find the last block whose first word is less than the key
+        int low = 0, high = blockOffsets.length - 1, block = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(word, decode(mid, 0, word), target) < 0) {
+                block = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (block < 0)
+            return 0;
+
+        // and then scan that block for the first word that is not less than the key
+        int position = 1;
+        int first    = block * BLOCK_SIZE;
+        while (position < BLOCK_SIZE && first + position < size &&
+               compare(word, decode(block, position, word), target) < 0)
+            position++;
+        return first + position;
+    }
+
+    /**
+     * @param prefix Any string of lowercase letters.
+     * @return the number of words that start with the given prefix.
+     */
+    public int countWithPrefix(String prefix) {
+        return lowerBound(prefix + '{') - lowerBound(prefix); // '{' is the character right after 'z'
+    }
+
+    /**
+     * @param prefix Any string of lowercase letters.
+     * @param limit  The maximum number of words to return.
+     * @return up to {@code limit} of the words that start with the given prefix, in sorted order.
+     */
+    public List<String> wordsWithPrefix(String prefix, int limit) {
+        int          from  = lowerBound(prefix);
+        int          to    = Math.min(lowerBound(prefix + '{'), from + limit);
+        List<String> words = new ArrayList<>(Math.max(to - from, 0));
+        for (int rank = from; rank < to; rank++)
+            words.add(wordAt(rank));
+        return words;
+    }
+
+    private static int compare(byte[] word, int length, byte[] target) {
+        int common = Math.min(length, target.length);
+        for (int i = 0; i < common; i++) {
+            if (word[i] != target[i])
+                return word[i] - target[i];
+        }
+        return length - target.length;
+    }
+}
@@ -0,0 +1,182 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A word source that memory-maps the word list instead of copying it onto the heap. A snapshot of the word list is
+ * kept in a sidecar index file (the word file's name followed by {@code .idx}) along with the positions of the valid
+ * words in it. The index is built on first use, and rebuilt whenever the size or modification time of the word file no
+ * longer matches the one recorded in its header. Only the index is mapped, and it is only ever replaced, never
+ * rewritten in place, so the word list itself can be edited or truncated while it is in use without tearing the words
+ * read from the mapping or faulting on it. A random word costs a single lookup into the mapped index, and several JVMs
+ * on the same machine share it through the operating system's page cache.
+ * <p>
+ * The index is laid out as a fixed-size header, followed by the starting position of every valid word in the snapshot
+ * (as {@code int}s), followed by the length of every valid word (as {@code byte}s), followed by the snapshot of the
+ * word list. Since the snapshot is a full copy of the word list, the index takes up more disk space than the word list
+ * itself (about 1.5 times as much for the bundled {@code words.txt}), and a mapped word list takes up about two and a
+ * half times its own size on disk. The index can be deleted at any time; it is built again on the next use.
+ */
+public class MappedWordSource implements WordSource {
+
+    public static final String INDEX_EXTENSION = ".idx";
+
+    private static final int INDEX_MAGIC   = 0x48494458; // "HIDX"
+    private static final int INDEX_VERSION = 2;
+    private static final int HEADER_SIZE   = 32;         // magic, version, file size, file mtime, word count, snapshot
+    private static final int MAX_FILE_SIZE = (Integer.MAX_VALUE - HEADER_SIZE) / 4; // the index fits in a buffer
+
+    private final ByteBuffer words; // the snapshot of the word list, within the index
+    private final ByteBuffer index; // the mapped (or, failing that, direct) index
+    private final int        size;  // the number of valid words
+
+    private MappedWordSource(ByteBuffer index) {
+        this.index = index;
+        this.size = index.getInt(HEADER_SIZE - 8);
+        ByteBuffer words = index.duplicate();
+        words.position(HEADER_SIZE + 5 * size);
+        this.words = words.slice();
+    }
+
+    /**
+     * Maps the given word list, building or rebuilding its sidecar index if necessary. If the index cannot be written
+     * next to the word list (e.g., because the directory is read-only), it is built in off-heap memory instead.
+     *
+     * @param wordFile The path to the word list.
+     * @return the mapped word source.
+     * @throws IOException if the word list cannot be read, or its index cannot be mapped.
+     */
+    public static MappedWordSource open(Path wordFile) throws IOException {
+        long fileSize = Files.size(wordFile);
+        long mtime    = Files.getLastModifiedTime(wordFile).toMillis();
+        if (fileSize > MAX_FILE_SIZE)
+            throw new IOException(String.format("%s is too large to be mapped.", wordFile));
+
+        Path       indexFile = wordFile.resolveSibling(wordFile.getFileName() + INDEX_EXTENSION);
+        ByteBuffer index     = mapIndex(indexFile, fileSize, mtime);
+        if (index == null) {
+            index = buildIndex(wordFile, fileSize, mtime);
+            try {
+                ByteBuffer contents = index.duplicate();
+                contents.clear();
+                WordSources.replace(indexFile, contents); // with the default permissions, so other users can map it
+                ByteBuffer mapped = mapIndex(indexFile, fileSize, mtime);
+                if (mapped != null)
+                    index = mapped;
+            } catch (IOException e) {
+                // the directory is not writable, so keep using the off-heap copy
+            }
+        }
+        return new MappedWordSource(index);
+    }
+
+    /**
+     * Maps an existing index file, provided it was built for a word file of the given size and modification time.
+     *
+     * @return the mapped index, or {@code null} if there is no index or if it is stale.
+     */
+    private static ByteBuffer mapIndex(Path indexFile, long fileSize, long mtime) throws IOException {
+        if (!Files.isRegularFile(indexFile) || Files.size(indexFile) < HEADER_SIZE)
+            return null;
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            index.order(ByteOrder.BIG_ENDIAN);
+            boolean current = index.getInt(0) == INDEX_MAGIC && index.getInt(4) == INDEX_VERSION &&
+                              index.getLong(8) == fileSize && index.getLong(16) == mtime &&
+                              channel.size() == HEADER_SIZE + 5L * index.getInt(24) + index.getInt(28);
+            return current ? index : null;
+        }
+    }
+
+    /**
+     * Reads a snapshot of the word file, scans it, and lays out the index, header and snapshot included, in off-heap
+     * memory. If the word file shrinks while it is read, the snapshot ends where the file did; either way, its
+     * modification time will no longer match the one recorded, so the index is rebuilt the next time it is opened.
+     */
+    private static ByteBuffer buildIndex(Path wordFile, long fileSize, long mtime) throws IOException {
+        ByteBuffer words = ByteBuffer.allocateDirect((int) fileSize);
+        try (FileChannel channel = FileChannel.open(wordFile, StandardOpenOption.READ)) {
+            while (words.hasRemaining() && channel.read(words) >= 0)
+                continue;
+        }
+        words.flip();
+
+        int        count = scan(words, null, 0);
+        ByteBuffer index = ByteBuffer.allocateDirect(HEADER_SIZE + 5 * count + words.limit());
+        index.putInt(INDEX_MAGIC).putInt(INDEX_VERSION).putLong(fileSize).putLong(mtime).putInt(count)
+             .putInt(words.limit());
+        scan(words, index, count);
+        index.position(HEADER_SIZE + 5 * count);
+        index.put(words);
+        return index;
+    }
+
+    /**
+     * Finds every valid word in the snapshot of the word file. If an index is given, the position and length of each
+     * word are recorded in it, in the slots reserved for {@code count} words.
+     *
+     * @return the number of valid words.
+     */
+    private static int scan(ByteBuffer words, ByteBuffer index, int count) {
+        int found     = 0;
+        int lineStart = 0;
+        int limit     = words.limit();
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && words.get(lineEnd) != '\n')
+                lineEnd++;
+            int wordEnd = lineEnd;
+            if (wordEnd > lineStart && words.get(wordEnd - 1) == '\r')
+                wordEnd--;
+            if (isWord(words, lineStart, wordEnd)) {
+                if (index != null) {
+                    index.putInt(HEADER_SIZE + 4 * found, lineStart);
+                    index.put(HEADER_SIZE + 4 * count + found, (byte) (wordEnd - lineStart));
+                }
+                found++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return found;
+    }
+
+    private static boolean isWord(ByteBuffer words, int from, int to) {
+        if (from >= to || to - from > MAX_WORD_LENGTH) // which also fits the length in a byte of the index
+            return false;
+        for (int i = from; i < to; i++) {
+            if (ResidentWordSource.toLetter(words.get(i)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long heapFootprint() {
+        return 0; // the index, snapshot included, lives outside the heap
+    }
+
+    @Override
+    public String wordAt(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(String.format("Word index %d is out of bounds [0, %d).", index, size));
+        int    start  = this.index.getInt(HEADER_SIZE + 4 * index);
+        int    length = this.index.get(HEADER_SIZE + 4 * size + index) & 0xFF;
+        byte[] word   = new byte[length];
+        for (int i = 0; i < length; i++)
+            word[i] = ResidentWordSource.toLetter(words.get(start + i));
+        return new String(word, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,146 @@
+package dictionary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Selects random words from a word list (one word per line) that may be far too large to be loaded, by streaming it.
+ * Each call to {@link #sample(int)} makes a single sequential pass over the file, reading it in chunks of
+ * {@value #CHUNK_SIZE} bytes, and picks {@code k} of its valid words uniformly at random, without knowing in advance
+ * how many there are. Entries that are not made up entirely of letters are skipped, just as when a word source is
+ * loaded.
+ * <p>
+ * The selection uses reservoir sampling with geometric skips ("Algorithm L"), so only {@code O(k log(n / k))} of the
+ * {@code n} words are ever turned into strings, and the random number generator is consulted just as often.
+ */
+public class ReservoirSampler {
+
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    private final Path   wordFile;
+    private final Random random;
+
+    /**
+     * @param wordFile The path to the word list.
+     * @param random   The source of randomness.
+     */
+    public ReservoirSampler(Path wordFile, Random random) {
+        this.wordFile = wordFile;
+        this.random = random;
+    }
+
+    /**
+     * Picks {@code k} distinct lines of the word list uniformly at random, in one pass over the file.
+     *
+     * @param k The number of words to pick.
+     * @return the words that were picked, in no particular order, or all the valid words if there are fewer than
+     * {@code k} of them.
+     * @throws IOException if the word list cannot be read.
+     */
+    public List<String> sample(int k) throws IOException {
+        if (k < 1)
+            throw new IllegalArgumentException("The sample size must be positive.");
+        String[] reservoir = new String[k];
+        long     count     = 0; // the number of valid words seen so far
+        double   weight    = Math.exp(Math.log(uniform()) / k);
+        long     next      = k + skip(weight); // the index of the next valid word to go into the reservoir
+
+        byte[]  word   = new byte[WordSource.MAX_WORD_LENGTH];
+        int     length = 0;
+        boolean valid  = true;  // whether the current line has been made up of letters so far
+        boolean cr     = false; // whether the last byte of the current line was a carriage return
+
+        try (FileChannel channel = FileChannel.open(wordFile, StandardOpenOption.READ)) {
+            ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_SIZE);
+            boolean    eof   = false;
+            while (!eof) {
+                chunk.clear();
+                eof = channel.read(chunk) < 0;
+                chunk.flip();
+                // at the end of the file, finish the last line as if it had been terminated
+                int limit = eof ? chunk.limit() + 1 : chunk.limit();
+                for (int i = 0; i < limit; i++) {
+                    byte b = i < chunk.limit() ? chunk.get(i) : (byte) '\n';
+                    if (b != '\n') {
+                        byte letter = ResidentWordSource.toLetter(b);
+                        if (cr || (letter == 0 && b != '\r') || length == WordSource.MAX_WORD_LENGTH)
+                            valid = false; // a carriage return is only allowed right before the line feed
+                        else if (letter != 0)
+                            word[length++] = letter;
+                        cr = b == '\r';
+                        continue;
+                    }
+                    if (valid && length > 0) {
+                        if (count < k) {
+                            reservoir[(int) count] = new String(word, 0, length, StandardCharsets.US_ASCII);
+                        } else if (count == next) {
+                            reservoir[random.nextInt(k)] = new String(word, 0, length, StandardCharsets.US_ASCII);
+                            weight *= Math.exp(Math.log(uniform()) / k);
+                            next += skip(weight) + 1;
+                        }
+                        count++;
+                    }
+                    length = 0;
+                    valid = true;
+                    cr = false;
+                }
+            }
+        }
+
+        List<String> sample = new ArrayList<>(Arrays.asList(reservoir).subList(0, (int) Math.min(count, k)));
+        Collections.shuffle(sample, random); // the reservoir starts out in file order
+        return sample;
+    }
+
+    /**
+     * Creates a word selector, e.g., for a {@link WordPrefetcher}, that draws its words from batches. Whenever a batch
+     * runs out, the next one is sampled in a single pass over the file, so the cost of each pass is shared by a whole
+     * batch of words.
+     *
+     * @param batchSize The number of words to pick in each pass over the file.
+     * @return a selector of random valid words from the word list. It throws {@link UncheckedIOException} if the word
+     * list cannot be read, and {@link NoSuchElementException} if it has no valid words.
+     */
+    public Supplier<String> selector(int batchSize) {
+        Deque<String> batch = new ArrayDeque<>(batchSize);
+        return () -> {
+            synchronized (batch) {
+                if (batch.isEmpty()) {
+                    try {
+                        batch.addAll(sample(batchSize));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (batch.isEmpty())
+                        throw new NoSuchElementException(String.format("%s has no valid words.", wordFile));
+                }
+                return batch.poll();
+            }
+        };
+    }
+
+    /** @return a number drawn uniformly from {@code (0, 1]}, so that it is safe to take its logarithm. */
+    private double uniform() {
+        return 1.0 - random.nextDouble();
+    }
+
+    /** @return the number of valid words to skip before the next one that goes into the reservoir. */
+    private long skip(double weight) {
+        double skip = Math.floor(Math.log(uniform()) / Math.log1p(-weight));
+        return skip < Long.MAX_VALUE / 2 ? (long) skip : Long.MAX_VALUE / 2; // far beyond the end of any file
+    }
+}
@@ -0,0 +1,105 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * A word source that keeps the entire word list in memory, in a compact form: all the words are concatenated into a
+ * single byte arena, and an offset table records where each word begins. The word at index {@code i} occupies the
+ * bytes {@code [offsets[i], offsets[i + 1])} of the arena. Entries that are not made up entirely of letters, or that
+ * are too long to be played, are dropped while loading, so every index refers to a playable word.
+ */
+public class ResidentWordSource implements WordSource {
+
+    private final byte[] arena;   // all the valid words, back to back, with no separators
+    private final int[]  offsets; // start of each word in the arena, followed by the end of the last word
+    private final int    size;    // the number of valid words
+
+    private ResidentWordSource(byte[] arena, int[] offsets, int size) {
+        this.arena = arena;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Loads a word list with one word per line. The file is read in bulk, and the valid words are compacted in place
+     * into the arena, so no per-word objects are created.
+     *
+     * @param wordFile The path to the word list.
+     * @return the loaded word source.
+     * @throws IOException if the word list cannot be read.
+     */
+    public static ResidentWordSource load(Path wordFile) throws IOException {
+        byte[] raw     = Files.readAllBytes(wordFile);
+        int[]  offsets = new int[1024];
+        int    size    = 0;
+        int    end     = 0; // end of the compacted arena; never ahead of the read position
+
+        int lineStart = 0;
+        while (lineStart < raw.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < raw.length && raw[lineEnd] != '\n')
+                lineEnd++;
+            int wordEnd = lineEnd;
+            if (wordEnd > lineStart && raw[wordEnd - 1] == '\r')
+                wordEnd--;
+            if (isWord(raw, lineStart, wordEnd)) {
+                if (size + 1 >= offsets.length)
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                offsets[size++] = end;
+                for (int i = lineStart; i < wordEnd; i++)
+                    raw[end++] = toLetter(raw[i]);
+            }
+            lineStart = lineEnd + 1;
+        }
+        offsets[size] = end;
+
+        return new ResidentWordSource(Arrays.copyOf(raw, end), Arrays.copyOf(offsets, size + 1), size);
+    }
+
+    /**
+     * @return {@code true} if the bytes {@code [from, to)} form a non-empty word made up entirely of letters, and no
+     * longer than {@value WordSource#MAX_WORD_LENGTH} letters.
+     */
+    static boolean isWord(byte[] bytes, int from, int to) {
+        if (from >= to || to - from > MAX_WORD_LENGTH)
+            return false;
+        for (int i = from; i < to; i++) {
+            if (toLetter(bytes[i]) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param b A byte from the word list.
+     * @return the byte as a lowercase letter, or {@code 0} if it is not a letter in the English alphabet.
+     */
+    static byte toLetter(byte b) {
+        if (b >= 'a' && b <= 'z')
+            return b;
+        if (b >= 'A' && b <= 'Z')
+            return (byte) (b - 'A' + 'a');
+        return 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long heapFootprint() {
+        return arena.length + 4L * offsets.length;
+    }
+
+    @Override
+    public String wordAt(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(String.format("Word index %d is out of bounds [0, %d).", index, size));
+        return new String(arena, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.US_ASCII);
+    }
+}
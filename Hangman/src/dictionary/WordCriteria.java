@@ -0,0 +1,83 @@
+package dictionary;
+
+import engine.HangmanEngine;
+
+/**
+ * Constraints on the target word to be selected, given as inclusive ranges on the length of the word and on the number
+ * of distinct letters in it. Instances are immutable; the {@code with...} methods return a new set of criteria.
+ */
+public final class WordCriteria {
+
+    private static final WordCriteria ANY = new WordCriteria(1, Integer.MAX_VALUE, 1, HangmanEngine.ALPHABET_SIZE);
+
+    private final int minLength;
+    private final int maxLength;
+    private final int minDistinct;
+    private final int maxDistinct;
+
+    private WordCriteria(int minLength, int maxLength, int minDistinct, int maxDistinct) {
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.minDistinct = minDistinct;
+        this.maxDistinct = maxDistinct;
+    }
+
+    /** @return the criteria that are met by every word. */
+    public static WordCriteria any() {
+        return ANY;
+    }
+
+    /**
+     * @param min The minimum length of the word.
+     * @param max The maximum length of the word.
+     * @return these criteria, with the length of the word restricted to {@code [min, max]}.
+     */
+    public WordCriteria withLength(int min, int max) {
+        return new WordCriteria(min, max, minDistinct, maxDistinct);
+    }
+
+    /**
+     * @param min The minimum number of distinct letters in the word.
+     * @param max The maximum number of distinct letters in the word.
+     * @return these criteria, with the number of distinct letters in the word restricted to {@code [min, max]}.
+     */
+    public WordCriteria withDistinctLetters(int min, int max) {
+        return new WordCriteria(minLength, maxLength, min, max);
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public int getMinDistinct() {
+        return minDistinct;
+    }
+
+    public int getMaxDistinct() {
+        return maxDistinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof WordCriteria))
+            return false;
+        WordCriteria that = (WordCriteria) o;
+        return minLength == that.minLength && maxLength == that.maxLength &&
+               minDistinct == that.minDistinct && maxDistinct == that.maxDistinct;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((minLength * 31 + maxLength) * 31 + minDistinct) * 31 + maxDistinct;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("length [%d, %d], distinct letters [%d, %d]", minLength, maxLength, minDistinct,
+                             maxDistinct);
+    }
+}
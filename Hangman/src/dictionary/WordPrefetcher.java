@@ -0,0 +1,108 @@
+package dictionary;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a small, bounded queue of target words that have already been selected, so that starting a new game only has
+ * to dequeue one. Whenever a word is taken, the queue is topped up again on a dedicated background thread. If the
+ * queue ever runs dry (e.g., because the word source is slow to respond), a word is selected synchronously instead.
+ */
+public class WordPrefetcher {
+
+    public static final int DEFAULT_DEPTH = 8;
+
+    private final Supplier<String>      selector;   // selects one valid target word
+    private final BlockingQueue<String> queue;      // the words selected ahead of time
+    private final ExecutorService       executor;   // the dedicated thread on which the queue is refilled
+    private final AtomicBoolean         refilling;  // whether a refill is already scheduled or running
+    private final AtomicInteger         generation; // bumped by every discard, so that older selections are dropped
+
+    /**
+     * Creates a prefetcher and starts filling its queue right away.
+     *
+     * @param selector The function that selects one valid target word. It may be called from any thread.
+     * @param depth    The number of words to keep ready.
+     */
+    public WordPrefetcher(Supplier<String> selector, int depth) {
+        if (depth < 1)
+            throw new IllegalArgumentException("The prefetch depth must be positive.");
+        this.selector = selector;
+        this.queue = new ArrayBlockingQueue<>(depth);
+        this.refilling = new AtomicBoolean(false);
+        this.generation = new AtomicInteger();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "word-prefetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refill();
+    }
+
+    /**
+     * Takes the next target word. This does not block: if no word is ready, one is selected on the calling thread.
+     *
+     * @return a valid target word.
+     */
+    public String take() {
+        String word = queue.poll();
+        if (word == null)
+            word = selector.get();
+        refill();
+        return word;
+    }
+
+    /** @return the number of words that are ready to be taken. */
+    public int available() {
+        return queue.size();
+    }
+
+    /**
+     * Discards the words that are ready, e.g., because the dictionary they were selected from has been replaced, and
+     * starts selecting new ones. A word that was being selected while this was called is discarded as well, rather
+     * than queued once it is selected.
+     */
+    public void discard() {
+        synchronized (queue) {
+            generation.incrementAndGet();
+            queue.clear();
+        }
+        refill();
+    }
+
+    /** Stops refilling the queue. Words that are already in the queue can still be taken. */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void refill() {
+        if (executor.isShutdown() || !refilling.compareAndSet(false, true))
+            return;
+        try {
+            executor.execute(() -> {
+                try {
+                    while (queue.remainingCapacity() > 0 && !Thread.currentThread().isInterrupted()) {
+                        int    selectedIn = generation.get();
+                        String word       = selector.get();
+                        synchronized (queue) {
+                            if (generation.get() == selectedIn) // not selected from what has since been discarded
+                                queue.offer(word);
+                        }
+                    }
+                } finally {
+                    refilling.set(false);
+                }
+                if (queue.remainingCapacity() > 0) // a word may have been taken just before the flag was cleared
+                    refill();
+            });
+        } catch (RejectedExecutionException e) {
+            refilling.set(false); // shut down in the meantime
+        }
+    }
+}
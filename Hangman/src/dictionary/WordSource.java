@@ -0,0 +1,38 @@
+package dictionary;
+
+import engine.HangmanEngine;
+
+import java.util.Random;
+
+/**
+ * A read-only list of candidate target words that can be accessed by index. Implementations are expected to have
+ * already discarded any entry that cannot be played (i.e., anything that is not made up entirely of letters, or that
+ * is longer than {@value #MAX_WORD_LENGTH} letters), so that every index refers to a valid target word.
+ */
+public interface WordSource {
+
+    /** The longest word that can be played, and so the longest word a source may hold. */
+    int MAX_WORD_LENGTH = HangmanEngine.MAX_WORD_LENGTH;
+
+    /** @return the number of valid words held by this source. */
+    int size();
+
+    /**
+     * @param index The position of the word, in the range {@code [0, size())}.
+     * @return the word at the given position.
+     */
+    String wordAt(int index);
+
+    /** @return the approximate number of bytes of heap memory taken up by this source. */
+    long heapFootprint();
+
+    /**
+     * Picks a word uniformly at random, in constant time.
+     *
+     * @param random The source of randomness.
+     * @return a random word from this source.
+     */
+    default String randomWord(Random random) {
+        return wordAt(random.nextInt(size()));
+    }
+}
@@ -0,0 +1,34 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A service that knows how to open dictionaries stored in one particular format. Providers are discovered through
+ * {@link java.util.ServiceLoader}, so a new format can be supported by adding a provider and listing it in
+ * {@code META-INF/services/dictionary.WordSourceProvider}. The order in which providers are listed there is also the
+ * order of preference, when the same dictionary is available in more than one format, or when more than one provider
+ * can open the same file: the first provider that {@link #accepts(Path) accepts} a file opens it.
+ */
+public interface WordSourceProvider {
+
+    /** @return the file name extension (including the dot) of the dictionaries this provider can open. */
+    String getExtension();
+
+    /**
+     * @param file A dictionary file with this provider's extension.
+     * @return {@code true} if this provider is to open the file, or {@code false} to leave it to the next provider
+     * with the same extension, e.g., because the file is too small or too large for this provider to suit it.
+     * @throws IOException if the file cannot be examined.
+     */
+    default boolean accepts(Path file) throws IOException {
+        return true;
+    }
+
+    /**
+     * @param file A dictionary file with this provider's extension.
+     * @return a word source over the valid words in the dictionary.
+     * @throws IOException if the dictionary cannot be read.
+     */
+    WordSource open(Path file) throws IOException;
+}
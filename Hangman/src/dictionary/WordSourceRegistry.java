@@ -0,0 +1,193 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Manages all the dictionaries (word packs) found in one directory. A dictionary is known by the name of its file,
+ * without the extension, and may be stored in any format for which a {@link WordSourceProvider} is available. Each
+ * dictionary is loaded on first use, and the loaded dictionaries are kept in least-recently-used order: whenever the
+ * heap memory they take up together exceeds the budget, the least recently used ones are evicted, and will be loaded
+ * again if they are asked for later. A dictionary that is kept in use elsewhere for good, e.g., the default one, is
+ * {@link #pin(String) pinned}: it still counts against the budget, since it still takes up memory, but it is never
+ * evicted, as that would free nothing.
+ */
+public class WordSourceRegistry {
+
+    private final Path                     directory;
+    private final long                     memoryBudget; // in bytes of heap
+    private final List<WordSourceProvider> providers;    // in order of preference
+    private final Map<String, WordSource>  loaded;       // in access order, least recently used first
+    private final Set<String>              pinned;       // the names of the dictionaries that are never evicted
+    private       long                     footprint;    // the heap memory taken up by the loaded dictionaries
+
+    /**
+     * Creates a registry that uses every provider discovered through {@link ServiceLoader}.
+     *
+     * @param directory    The directory in which the dictionaries are stored.
+     * @param memoryBudget The number of bytes of heap memory that the loaded dictionaries may take up together.
+     */
+    public WordSourceRegistry(Path directory, long memoryBudget) {
+        this(directory, memoryBudget, discoverProviders());
+    }
+
+    /**
+     * @param directory    The directory in which the dictionaries are stored.
+     * @param memoryBudget The number of bytes of heap memory that the loaded dictionaries may take up together.
+     * @param providers    The providers for the supported dictionary formats, in order of preference.
+     */
+    public WordSourceRegistry(Path directory, long memoryBudget, List<WordSourceProvider> providers) {
+        this.directory = directory;
+        this.memoryBudget = memoryBudget;
+        this.providers = new ArrayList<>(providers);
+        this.loaded = new LinkedHashMap<>(16, 0.75f, true);
+        this.pinned = new HashSet<>();
+    }
+
+    private static List<WordSourceProvider> discoverProviders() {
+        List<WordSourceProvider> providers = new ArrayList<>();
+        for (WordSourceProvider provider : ServiceLoader.load(WordSourceProvider.class))
+            providers.add(provider);
+        return providers;
+    }
+
+    /**
+     * @return the names of all the dictionaries available in this registry's directory, whether loaded or not.
+     * @throws IOException if the directory cannot be listed.
+     */
+    public SortedSet<String> getDictionaryNames() throws IOException {
+        SortedSet<String> names = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = nameOf(file);
+                if (name != null && Files.isRegularFile(file))
+                    names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the named dictionary, loading it if it is not already loaded. If the same dictionary is available in more
+     * than one format, the format of the first provider that accepts its file is used.
+     *
+     * @param name The name of the dictionary.
+     * @return a word source over the valid words in the dictionary.
+     * @throws IOException if the dictionary does not exist, or cannot be read.
+     */
+    public synchronized WordSource get(String name) throws IOException {
+        WordSource source = loaded.get(name);
+        if (source != null)
+            return source;
+
+        source = open(name);
+        loaded.put(name, source);
+        footprint += source.heapFootprint();
+        evict();
+        return source;
+    }
+
+    /**
+     * Loads the named dictionary afresh, e.g., because its file has changed, and then replaces the previously loaded
+     * version (if any) in a single step. The dictionary is loaded without holding this registry's lock, so lookups of
+     * other dictionaries are not held up, and anyone still using the previous version can go on using it.
+     *
+     * @param name The name of the dictionary.
+     * @return the freshly loaded word source.
+     * @throws IOException if the dictionary does not exist, or cannot be read, in which case the previously loaded
+     *                     version is kept.
+     */
+    public WordSource reload(String name) throws IOException {
+        WordSource fresh = open(name);
+        synchronized (this) {
+            WordSource previous = loaded.put(name, fresh);
+            if (previous != null)
+                footprint -= previous.heapFootprint();
+            footprint += fresh.heapFootprint();
+            evict();
+        }
+        return fresh;
+    }
+
+    /**
+     * Keeps the named dictionary loaded from now on, along with the versions it is reloaded as, e.g., because it is
+     * held on to elsewhere anyway. It may be pinned before it is loaded.
+     *
+     * @param name The name of the dictionary.
+     */
+    public synchronized void pin(String name) {
+        pinned.add(name);
+    }
+
+    /**
+     * @param file Any file.
+     * @return the name of the dictionary stored in the given file, or {@code null} if no provider has the extension of
+     * the file.
+     */
+    public String nameOf(Path file) {
+        String name = file.getFileName().toString();
+        for (WordSourceProvider provider : providers) {
+            if (name.endsWith(provider.getExtension()))
+                return name.substring(0, name.length() - provider.getExtension().length());
+        }
+        return null;
+    }
+
+    /** @return the directory in which the dictionaries are stored. */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /** @return {@code true} if the named dictionary is currently loaded. */
+    public synchronized boolean isLoaded(String name) {
+        return loaded.containsKey(name);
+    }
+
+    /** @return the names of all the currently loaded dictionaries. */
+    public synchronized SortedSet<String> getLoadedNames() {
+        return new TreeSet<>(loaded.keySet());
+    }
+
+    /** @return the heap memory, in bytes, taken up by all the currently loaded dictionaries. */
+    public synchronized long getFootprint() {
+        return footprint;
+    }
+
+    /** Opens the named dictionary with the first provider that has a file for it, and accepts that file. */
+    private WordSource open(String name) throws IOException {
+        for (WordSourceProvider provider : providers) {
+            Path file = directory.resolve(name + provider.getExtension());
+            if (Files.isRegularFile(file) && provider.accepts(file))
+                return provider.open(file);
+        }
+        throw new NoSuchFileException(directory.resolve(name).toString(), null, "No such dictionary.");
+    }
+
+    /**
+     * Evicts the least recently used dictionaries until the rest fit in the budget, sparing the pinned ones and the
+     * most recent one.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, WordSource>> lru = loaded.entrySet().iterator();
+        for (int older = loaded.size() - 1; footprint > memoryBudget && older > 0; older--) {
+            Map.Entry<String, WordSource> entry = lru.next();
+            if (!pinned.contains(entry.getKey())) {
+                footprint -= entry.getValue().heapFootprint();
+                lru.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Factory methods for opening a word list in one of the supported storage modes. In the compiled mode, the path of the
+ * plain word list is still given, and the compiled dictionary is expected to be found next to it; it is compiled again
+ * first if the word list has changed since. The built-in {@link WordSourceProvider}s are also defined here.
+ */
+public final class WordSources {
+
+    public enum Mode {
+        /** The whole word list is copied into a compact heap arena (see {@link ResidentWordSource}). */
+        RESIDENT,
+        /** A snapshot of the word list, kept in its sidecar index, is memory-mapped (see {@link MappedWordSource}). */
+        MAPPED,
+        /** The word list has been compiled ahead of time (see {@link DictionaryCompiler}). */
+        COMPILED,
+        /** The word list is sorted and front-coded on the heap (see {@link FrontCodedWordSource}). */
+        FRONT_CODED
+    }
+
+    public static final String PLAIN_EXTENSION    = ".txt";
+    public static final String COMPILED_EXTENSION = ".dict";
+    public static final long   MAPPED_MIN_SIZE    = 1L << 20; // the smallest plain word list that is memory-mapped
+
+    private WordSources() { }
+
+    /**
+     * Opens a word list with one word per line.
+     *
+     * @param wordFile The path to the word list.
+     * @param mode     How the words are to be held in memory.
+     * @return a word source over the valid words in the list.
+     * @throws IOException if the word list cannot be read.
+     */
+    public static WordSource open(Path wordFile, Mode mode) throws IOException {
+        switch (mode) {
+            case MAPPED:
+                return MappedWordSource.open(wordFile);
+            case COMPILED:
+                Path compiled = compiledFileFor(wordFile);
+                if (!Files.isRegularFile(compiled) || !CompiledWordSource.isCurrent(compiled, wordFile))
+                    DictionaryCompiler.compile(wordFile, compiled);
+                return CompiledWordSource.load(compiled);
+            case FRONT_CODED:
+                return FrontCodedWordSource.load(wordFile);
+            case RESIDENT:
+            default:
+                return ResidentWordSource.load(wordFile);
+        }
+    }
+
+    /**
+     * Provides dictionaries that have been compiled ahead of time. A compiled dictionary whose plain word list has
+     * changed since it was compiled is passed over, so that the word list is loaded by the next provider instead.
+     */
+    public static class CompiledProvider implements WordSourceProvider {
+        @Override
+        public String getExtension() {
+            return COMPILED_EXTENSION;
+        }
+
+        @Override
+        public boolean accepts(Path file) throws IOException {
+            String name   = file.getFileName().toString();
+            Path   source = file.resolveSibling(name.substring(0, name.length() - COMPILED_EXTENSION.length()) +
+                                                PLAIN_EXTENSION);
+            return CompiledWordSource.isCurrent(file, source);
+        }
+
+        @Override
+        public WordSource open(Path file) throws IOException {
+            return CompiledWordSource.load(file);
+        }
+    }
+
+    /**
+     * Provides plain word lists of at least {@value #MAPPED_MIN_SIZE} bytes, memory-mapped. Smaller ones are left to
+     * the next provider, i.e., {@link ResidentProvider} by default, since copying them onto the heap costs little, and
+     * needs neither a mapping nor a sidecar index.
+     */
+    public static class MappedProvider implements WordSourceProvider {
+        @Override
+        public String getExtension() {
+            return PLAIN_EXTENSION;
+        }
+
+        @Override
+        public boolean accepts(Path file) throws IOException {
+            return Files.size(file) >= MAPPED_MIN_SIZE;
+        }
+
+        @Override
+        public WordSource open(Path file) throws IOException {
+            return MappedWordSource.open(file);
+        }
+    }
+
+    /** Provides plain word lists, copied onto the heap. */
+    public static class ResidentProvider implements WordSourceProvider {
+        @Override
+        public String getExtension() {
+            return PLAIN_EXTENSION;
+        }
+
+        @Override
+        public WordSource open(Path file) throws IOException {
+            return ResidentWordSource.load(file);
+        }
+    }
+
+    /**
+     * Provides plain word lists, front-coded on the heap. This is not listed as a service by default, since it is
+     * slower to load than the other providers, but it can be listed ahead of them for large word packs.
+     */
+    public static class FrontCodedProvider implements WordSourceProvider {
+        @Override
+        public String getExtension() {
+            return PLAIN_EXTENSION;
+        }
+
+        @Override
+        public WordSource open(Path file) throws IOException {
+            return FrontCodedWordSource.load(file);
+        }
+    }
+
+    /**
+     * @param wordFile The path to a plain word list.
+     * @return the path where the compiled form of the word list is expected, i.e., next to it, with the extension
+     * replaced by {@value #COMPILED_EXTENSION}.
+     */
+    public static Path compiledFileFor(Path wordFile) {
+        String name = wordFile.getFileName().toString();
+        int    dot  = name.lastIndexOf('.');
+        return wordFile.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + COMPILED_EXTENSION);
+    }
+
+    /**
+     * Replaces a file in one step, so that no one, e.g., a {@link DictionaryWatcher} or another JVM about to map it,
+     * ever sees it partly written: the contents are written to a new file next to it, which is then renamed over it.
+     * The new file is created with the default permissions, like any other file, so that everyone who could read the
+     * old one can read it too.
+     *
+     * @param file     The file to replace, or to create if it does not exist.
+     * @param contents The new contents of the file, from its position to its limit.
+     * @throws IOException if the file cannot be written, in which case it is left as it was.
+     */
+    static void replace(Path file, ByteBuffer contents) throws IOException {
+        Path temporary = file.toAbsolutePath().resolveSibling(String.format("%s.%016x.tmp", file.getFileName(),
+                                                                            ThreadLocalRandom.current().nextLong()));
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+                                                        StandardOpenOption.WRITE)) {
+                while (contents.hasRemaining())
+                    channel.write(contents);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -22,6 +22,18 @@ public class Hangman extends AppTemplate {
         return "HangmanController";
     }
 
+    /** Loads and indexes the dictionary of target words in the background, while the window is being built. */
+    @Override
+    public void warmUp() {
+        GameData.warmUp();
+    }
+
+    /** Stops watching the dictionaries and selecting target words once the window has been closed. */
+    @Override
+    public void stop() {
+        GameData.shutDown();
+    }
+
     @Override
     public AppComponentsBuilder makeAppBuilderHook() {
         return new AppComponentsBuilder() {
@@ -0,0 +1,247 @@
+package server;
+
+import dictionary.WordSource;
+import dictionary.WordSourceRegistry;
+import engine.GuessResult;
+import engine.HangmanState;
+import session.SessionRegistry;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Serves Hangman over TCP, without any user interface, so that one node can host games for thousands of remote
+ * players. Every connection gets its own session in a {@link SessionRegistry}, which is closed when the connection is,
+ * and is served by its own thread: a virtual thread if the JVM has them, and a pooled platform thread otherwise.
+ * <p>
+ * The protocol is line-based. Every command is answered with exactly one line:
+ * <pre>
+ *     NEW          starts a new game               OK &lt;status&gt; &lt;pattern&gt; &lt;remaining&gt;
+ *     GUESS &lt;c&gt;    guesses the letter c           &lt;result&gt; &lt;status&gt; &lt;pattern&gt; &lt;remaining&gt;
+ *     HINT         uses the hint                   HINT &lt;letter&gt; &lt;status&gt; &lt;pattern&gt; &lt;remaining&gt;
+ *     STATE        shows the game                  STATE &lt;status&gt; &lt;pattern&gt; &lt;remaining&gt;
+ *     QUIT         closes the connection           BYE
+ * </pre>
+ * where the result is one of the {@link GuessResult}s, the status is one of the {@link HangmanState.Status} values,
+ * and the pattern shows the target word as revealed so far, e.g., {@code _a__e_}. Once a game has been won or lost,
+ * the target word is appended to every answer. A command that cannot be carried out is answered with
+ * {@code ERR <reason>}. A game is started as soon as a player connects. A connection is closed after a line longer
+ * than {@value #MAX_LINE_LENGTH} characters, which is answered with {@code ERR}, when its session has expired, and when
+ * it has been idle for as long as a session may be, so that no connection outlives its session.
+ * <pre>
+ *     java server.HangmanServer [&lt;port&gt; [&lt;dictionary directory&gt;]]
+ * </pre>
+ */
+public class HangmanServer implements Closeable {
+
+    public static final int    DEFAULT_PORT       = 7219;
+    public static final String DEFAULT_DICTIONARY = "words";
+
+    private static final int  BACKLOG                  = 4096; // so that a burst of connections is not refused
+    private static final long IDLE_TIMEOUT_MINUTES     = 30;
+    private static final int  MAX_LINE_LENGTH          = 256;  // no command comes close; longer lines are refused
+    private static final long DICTIONARY_MEMORY_BUDGET = 64L << 20;
+
+    private final ServerSocket    serverSocket;
+    private final SessionRegistry sessions;
+    private final ExecutorService connections; // one thread per connection
+    private final Set<Socket>     sockets;     // the connections that are open, so that they can be closed
+    private final Thread          acceptor;
+
+    /**
+     * Starts listening for players.
+     *
+     * @param port  The port to listen on, or {@code 0} for any free port.
+     * @param words Selects the target word of every new game. It is called from many threads at once.
+     * @throws IOException if the port cannot be bound.
+     */
+    public HangmanServer(int port, Supplier<String> words) throws IOException {
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(port), BACKLOG);
+        this.sessions = new SessionRegistry(words, IDLE_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        this.connections = newThreadPerTaskExecutor();
+        this.sockets = ConcurrentHashMap.newKeySet();
+        this.acceptor = new Thread(this::accept, "hangman-acceptor");
+        this.acceptor.start();
+    }
+
+    public static void main(String[] args) throws IOException, URISyntaxException {
+        int  port      = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path directory = args.length > 1 ? Paths.get(args[1]) : defaultDictionaryDirectory();
+
+        WordSource words = new WordSourceRegistry(directory, DICTIONARY_MEMORY_BUDGET).get(DEFAULT_DICTIONARY);
+        HangmanServer server = new HangmanServer(port, () -> words.randomWord(ThreadLocalRandom.current()));
+        System.out.printf("Serving %,d words on port %d%n", words.size(), server.getPort());
+    }
+
+    private static Path defaultDictionaryDirectory() throws URISyntaxException {
+        URL wordsResource = HangmanServer.class.getClassLoader().getResource(DEFAULT_DICTIONARY);
+        if (wordsResource == null)
+            throw new IllegalStateException("The dictionary directory is not on the class path.");
+        return Paths.get(wordsResource.toURI());
+    }
+
+    /**
+     * Creates an executor that runs every task on a new virtual thread if the JVM supports them (Java 21 and later),
+     * and on a cached platform thread otherwise.
+     *
+     * @return an executor with a thread per task.
+     */
+    static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /** @return the port this server is listening on. */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** @return the number of players connected right now. */
+    public int getPlayerCount() {
+        return sessions.size();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                sockets.add(socket);
+                connections.execute(() -> serve(socket));
+            } catch (SocketException e) {
+                // the server has been closed
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        String id = null;
+        try (Socket connection = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(),
+                                                                          StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(),
+                                                                    StandardCharsets.US_ASCII))) {
+            connection.setTcpNoDelay(true);
+            connection.setSoTimeout((int) TimeUnit.MINUTES.toMillis(IDLE_TIMEOUT_MINUTES));
+            id = sessions.open();
+            String line;
+            while ((line = readLine(in)) != null) {
+                String  reply;
+                boolean last;
+                if (line.length() > MAX_LINE_LENGTH) {
+                    reply = String.format("ERR lines are limited to %d characters", MAX_LINE_LENGTH);
+                    last = true;
+                } else {
+                    try {
+                        reply = execute(id, line.trim());
+                        last = reply.equals("BYE");
+                    } catch (NoSuchElementException e) { // the session has expired
+                        reply = "ERR " + e.getMessage();
+                        last = true;
+                    }
+                }
+                out.write(reply);
+                out.write('\n');
+                out.flush();
+                if (last)
+                    break;
+            }
+        } catch (IOException e) {
+            // the player went away, or has been idle for too long
+        } finally {
+            sockets.remove(socket);
+            if (id != null)
+                sessions.close(id);
+        }
+    }
+
+    /**
+     * Reads a line, like {@link BufferedReader#readLine()} does, but stops once it is longer than
+     * {@value #MAX_LINE_LENGTH} characters, so that a player cannot make the server buffer a line of any length.
+     *
+     * @return the line, which is only longer than {@value #MAX_LINE_LENGTH} characters if the rest of it has not been
+     * read, or {@code null} at the end of the stream.
+     */
+    private static String readLine(BufferedReader in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int           c;
+        while ((c = in.read()) >= 0 && c != '\n') {
+            line.append((char) c);
+            if (line.length() > MAX_LINE_LENGTH)
+                break;
+        }
+        return c < 0 && line.length() == 0 ? null : line.toString();
+    }
+
+    /** @throws NoSuchElementException if the session has expired. */
+    private String execute(String id, String line) {
+        String[] words   = line.split("\\s+", 2);
+        String   command = words[0].toUpperCase(Locale.ROOT);
+        try {
+            switch (command) {
+                case "NEW":
+                    return describe("OK", sessions.newGame(id));
+                case "GUESS":
+                    if (words.length < 2 || words[1].length() != 1)
+                        return "ERR GUESS takes a single letter";
+                    GuessResult result = sessions.guess(id, Character.toLowerCase(words[1].charAt(0)));
+                    return describe(result.name(), sessions.state(id));
+                case "HINT":
+                    char letter = sessions.hint(id);
+                    return describe("HINT " + letter, sessions.state(id));
+                case "STATE":
+                    return describe("STATE", sessions.state(id));
+                case "QUIT":
+                    return "BYE";
+                default:
+                    return "ERR unknown command " + words[0];
+            }
+        } catch (IllegalStateException e) { // no hint
+            return "ERR " + e.getMessage();
+        }
+    }
+
+    private static String describe(String tag, HangmanState state) {
+        String reply = String.format("%s %s %s %d", tag, state.getStatus(), state.getPattern(),
+                                     state.getRemainingGuesses());
+        return state.isOver() ? reply + " " + state.getTargetWord() : reply;
+    }
+
+    /** Stops accepting players, and disconnects the ones that are connected. */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : sockets)
+            socket.close(); // a thread blocked reading from it is not woken up by an interrupt
+        connections.shutdownNow();
+        sessions.close();
+    }
+}
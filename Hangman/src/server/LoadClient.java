@@ -0,0 +1,120 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates load against a {@link HangmanServer}: connects a number of simulated players at the same time, each of
+ * whom plays a number of games by guessing letters in order of their frequency in English, and reports the throughput
+ * and the latency of the requests.
+ * <pre>
+ *     java server.LoadClient [&lt;host&gt; [&lt;port&gt; [&lt;players&gt; [&lt;games per player&gt;]]]]
+ * </pre>
+ */
+public final class LoadClient {
+
+    private static final String LETTERS_BY_FREQUENCY = "etaoinsrhldcumfpgwybvkxjqz";
+
+    private final String          host;
+    private final int             port;
+    private final LongAdder       requests = new LongAdder();
+    private final LongAdder       games    = new LongAdder();
+    private final LongAdder       wins     = new LongAdder();
+    private final LongAdder       failures = new LongAdder(); // players who could not finish their games
+    private final AtomicLongArray latencies = new AtomicLongArray(Long.SIZE); // counts by power of 2 of microseconds
+
+    private LoadClient(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String host    = args.length > 0 ? args[0] : "localhost";
+        int    port    = args.length > 1 ? Integer.parseInt(args[1]) : HangmanServer.DEFAULT_PORT;
+        int    players = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        int    rounds  = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        LoadClient      client   = new LoadClient(host, port);
+        CountDownLatch  finished = new CountDownLatch(players);
+        ExecutorService threads  = HangmanServer.newThreadPerTaskExecutor();
+        long            start    = System.nanoTime();
+        for (int i = 0; i < players; i++) {
+            threads.execute(() -> {
+                try {
+                    client.play(rounds);
+                } catch (IOException e) {
+                    client.failures.increment();
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        threads.shutdown();
+        client.report(players, (System.nanoTime() - start) / 1e9);
+    }
+
+    private void play(int rounds) throws IOException {
+        try (Socket socket = new Socket(host, port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                                                                          StandardCharsets.US_ASCII));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                                                                    StandardCharsets.US_ASCII))) {
+            socket.setTcpNoDelay(true);
+            for (int round = 0; round < rounds; round++) {
+                String reply = round == 0 ? request(in, out, "STATE") : request(in, out, "NEW");
+                for (int i = 0; i < LETTERS_BY_FREQUENCY.length() && reply.contains("IN_PROGRESS"); i++)
+                    reply = request(in, out, "GUESS " + LETTERS_BY_FREQUENCY.charAt(i));
+                games.increment();
+                if (reply.contains("WON"))
+                    wins.increment();
+            }
+            request(in, out, "QUIT");
+        }
+    }
+
+    private String request(BufferedReader in, Writer out, String command) throws IOException {
+        long start = System.nanoTime();
+        out.write(command);
+        out.write('\n');
+        out.flush();
+        String reply = in.readLine();
+        if (reply == null)
+            throw new IOException("The server closed the connection.");
+        long micros = (System.nanoTime() - start) / 1_000;
+        latencies.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(micros));
+        requests.increment();
+        return reply;
+    }
+
+    private void report(int players, double seconds) {
+        System.out.printf("%,d players, %,d games (%.1f%% won), %,d failed players%n", players, games.sum(),
+                          100.0 * wins.sum() / Math.max(games.sum(), 1), failures.sum());
+        System.out.printf("%,d requests in %.2f s: %,.0f requests/s, %,.0f games/s%n", requests.sum(), seconds,
+                          requests.sum() / seconds, games.sum() / seconds);
+        System.out.printf("latency: p50 < %,d us, p99 < %,d us, p99.9 < %,d us%n", percentile(0.50),
+                          percentile(0.99), percentile(0.999));
+    }
+
+    /** @return the upper bound of the power-of-2 latency bucket in which the given fraction of requests is reached. */
+    private long percentile(double fraction) {
+        long target = (long) Math.ceil(fraction * requests.sum());
+        long seen   = 0;
+        for (int bucket = 0; bucket < latencies.length(); bucket++) {
+            seen += latencies.get(bucket);
+            if (seen >= target)
+                return 1L << bucket;
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,28 @@
+package simulation;
+
+/**
+ * A way of playing Hangman automatically. A strategy only sees what a player would see: the length of the target word,
+ * the letters revealed so far, and the letters already guessed. A strategy may keep state between the guesses of a
+ * game, so every thread of a simulation uses its own instance.
+ */
+public interface GuessingStrategy {
+
+    /**
+     * Called at the start of every game.
+     *
+     * @param length The length of the target word.
+     */
+    void newGame(int length);
+
+    /**
+     * Picks the next letter to guess. This is called once for every guess, so it should not allocate memory.
+     *
+     * @param pattern The target word as revealed so far, with {@code '_'} at every position that is not revealed. The
+     *                array is owned by the caller, and must not be modified.
+     * @param guessed The letters guessed so far, good or bad, as a 26-bit mask (bit {@code i} stands for
+     *                {@code 'a' + i}).
+     * @param bad     The letters guessed so far that are not in the target word, as a 26-bit mask.
+     * @return a lowercase letter that has not been guessed yet.
+     */
+    char nextGuess(char[] pattern, int guessed, int bad);
+}
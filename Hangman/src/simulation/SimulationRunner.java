@@ -0,0 +1,200 @@
+package simulation;
+
+import dictionary.DictionaryIndex;
+import dictionary.WordSource;
+import dictionary.WordSources;
+import engine.GuessResult;
+import engine.HangmanEngine;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Plays a large number of games automatically, against the real dictionary and the real rules, to evaluate a guessing
+ * strategy and the rules themselves (the number of guesses allowed, and the threshold for a hint). The games are split
+ * into one batch per core, and the batches are played in parallel with no shared state, each with its own engine,
+ * strategy and random numbers, so the throughput grows with the number of cores. Within a batch, nothing is allocated
+ * per guess. A player uses the hint as soon as only two guesses remain, if it is available then.
+ * <pre>
+ *     java simulation.SimulationRunner [&lt;games&gt; [&lt;strategy&gt; [&lt;guesses allowed&gt;
+ *                                      [&lt;hint threshold&gt; [&lt;word list&gt;]]]]]
+ * </pre>
+ */
+public class SimulationRunner {
+
+    private static final int HINT_AT_REMAINING = 2; // the hint is only available while more than one guess remains
+
+    private final WordSource                 words;
+    private final Supplier<GuessingStrategy> strategies;
+    private final int                        allowedGuesses;
+    private final int                        hintThreshold;
+
+    /**
+     * @param words          The dictionary of target words.
+     * @param strategies     Creates the strategy used by each batch of games.
+     * @param allowedGuesses The number of bad guesses that lose a game.
+     * @param hintThreshold  A hint is only given for target words with more distinct letters than this.
+     */
+    public SimulationRunner(WordSource words, Supplier<GuessingStrategy> strategies, int allowedGuesses,
+                            int hintThreshold) {
+        this.words = words;
+        this.strategies = strategies;
+        this.allowedGuesses = allowedGuesses;
+        this.hintThreshold = hintThreshold;
+    }
+
+    public static void main(String[] args) throws IOException {
+        long   games          = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        String strategy       = args.length > 1 ? args[1] : "frequency";
+        int    allowedGuesses = args.length > 2 ? Integer.parseInt(args[2]) : HangmanEngine.DEFAULT_ALLOWED_GUESSES;
+        int    hintThreshold  = args.length > 3 ? Integer.parseInt(args[3]) : HangmanEngine.DEFAULT_HINT_THRESHOLD;
+        Path   wordFile       = Paths.get(args.length > 4 ? args[4] : "Hangman/resources/words/words.txt");
+
+        WordSource       words  = WordSources.open(wordFile, WordSources.Mode.RESIDENT);
+        DictionaryIndex  index  = DictionaryIndex.build(words);
+        SimulationRunner runner = new SimulationRunner(words, Strategies.byName(strategy, index), allowedGuesses,
+                                                       hintThreshold);
+        long   start   = System.nanoTime();
+        Tally  result  = runner.run(games, System.nanoTime());
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%,d games with the %s strategy, %d guesses allowed, hint threshold %d%n", games, strategy,
+                          allowedGuesses, hintThreshold);
+        System.out.printf("%.2f s on %d cores: %,.0f games/s%n%n", seconds, Runtime.getRuntime().availableProcessors(),
+                          games / seconds);
+        result.print(System.out);
+    }
+
+    /**
+     * Plays the given number of games, spread over all the cores.
+     *
+     * @param games The number of games to play.
+     * @param seed  The seed from which the random numbers of every batch are derived.
+     * @return the results, by length of the target word.
+     */
+    public Tally run(long games, long seed) {
+        int                batches = Runtime.getRuntime().availableProcessors();
+        SplittableRandom   root    = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[batches];
+        for (int i = 0; i < batches; i++)
+            randoms[i] = root.split();
+
+        return IntStream.range(0, batches)
+                        .parallel()
+                        .mapToObj(i -> play(games / batches + (i < games % batches ? 1 : 0), randoms[i]))
+                        .collect(Tally::new, Tally::merge, Tally::merge);
+    }
+
+    private Tally play(long games, SplittableRandom random) {
+        Tally            tally    = new Tally();
+        GuessingStrategy strategy = strategies.get();
+        HangmanEngine    engine   = new HangmanEngine(allowedGuesses, hintThreshold, new Random(random.nextLong()));
+        char[][]         patterns = new char[HangmanEngine.MAX_WORD_LENGTH + 1][]; // one buffer for each length
+
+        for (long game = 0; game < games; game++) {
+            String word = words.wordAt(random.nextInt(words.size()));
+            engine.newGame(word);
+            strategy.newGame(word.length());
+            if (patterns[word.length()] == null)
+                patterns[word.length()] = new char[word.length()];
+            char[] revealed = patterns[word.length()];
+            Arrays.fill(revealed, '_');
+
+            while (!engine.isOver()) {
+                char guess;
+                if (engine.getRemainingGuesses() <= HINT_AT_REMAINING && engine.isHintAvailable()) {
+                    guess = engine.hint();
+                } else {
+                    guess = strategy.nextGuess(revealed, engine.getGoodGuesses() | engine.getBadGuesses(),
+                                               engine.getBadGuesses());
+                    GuessResult result = engine.guess(guess);
+                    if (result == GuessResult.BAD)
+                        continue;
+                    if (result != GuessResult.GOOD)
+                        throw new IllegalStateException(String.format("The strategy guessed '%c' (%s).", guess,
+                                                                      result));
+                }
+                for (long bits = engine.positionsOf(guess); bits != 0; bits &= bits - 1)
+                    revealed[Long.numberOfTrailingZeros(bits)] = guess;
+            }
+            tally.record(word.length(), engine.isSolved(), engine.isHintUsed(),
+                         Integer.bitCount(engine.getBadGuesses()) - (engine.isHintUsed() ? 1 : 0));
+        }
+        return tally;
+    }
+
+    /** The results of a number of games, by length of the target word. */
+    public static final class Tally {
+        private long[] games        = new long[0];
+        private long[] wins         = new long[0];
+        private long[] hints        = new long[0];
+        private long[] wrongGuesses = new long[0];
+
+        void record(int length, boolean won, boolean hintUsed, int wrong) {
+            if (length >= games.length)
+                grow(length + 1);
+            games[length]++;
+            wins[length] += won ? 1 : 0;
+            hints[length] += hintUsed ? 1 : 0;
+            wrongGuesses[length] += wrong;
+        }
+
+        private void grow(int lengths) {
+            games = Arrays.copyOf(games, lengths);
+            wins = Arrays.copyOf(wins, lengths);
+            hints = Arrays.copyOf(hints, lengths);
+            wrongGuesses = Arrays.copyOf(wrongGuesses, lengths);
+        }
+
+        Tally merge(Tally other) {
+            if (other.games.length > games.length)
+                grow(other.games.length);
+            for (int length = 0; length < other.games.length; length++) {
+                games[length] += other.games[length];
+                wins[length] += other.wins[length];
+                hints[length] += other.hints[length];
+                wrongGuesses[length] += other.wrongGuesses[length];
+            }
+            return this;
+        }
+
+        /** @return the total number of games played. */
+        public long getGames() {
+            return Arrays.stream(games).sum();
+        }
+
+        /** @return the total number of games won. */
+        public long getWins() {
+            return Arrays.stream(wins).sum();
+        }
+
+        /**
+         * Prints the win rate, the average number of wrong guesses, and the share of games in which the hint was used,
+         * for every length of target word, and then overall.
+         *
+         * @param out Where to print the table.
+         */
+        public void print(PrintStream out) {
+            out.printf("%6s %12s %8s %14s %8s%n", "length", "games", "won", "wrong guesses", "hinted");
+            for (int length = 0; length < games.length; length++) {
+                if (games[length] > 0)
+                    printRow(out, Integer.toString(length), games[length], wins[length], wrongGuesses[length],
+                             hints[length]);
+            }
+            printRow(out, "all", getGames(), getWins(), Arrays.stream(wrongGuesses).sum(),
+                     Arrays.stream(hints).sum());
+        }
+
+        private static void printRow(PrintStream out, String label, long games, long wins, long wrong, long hints) {
+            out.printf("%6s %,12d %7.2f%% %14.2f %7.2f%%%n", label, games, 100.0 * wins / games, (double) wrong / games,
+                       100.0 * hints / games);
+        }
+    }
+}
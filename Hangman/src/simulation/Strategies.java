@@ -0,0 +1,92 @@
+package simulation;
+
+import dictionary.DictionaryIndex;
+import dictionary.EntropySolver;
+
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * The built-in {@link GuessingStrategy} implementations, and a way of looking them up by name from the command line.
+ */
+public final class Strategies {
+
+    private static final int ALPHABET_SIZE = 26;
+
+    private Strategies() { }
+
+    /**
+     * @param name  The name of a strategy: {@code frequency}, {@code random} or {@code entropy}.
+     * @param index The indexes over the dictionary from which the target words are drawn.
+     * @return a factory of fresh instances of the named strategy.
+     * @throws IllegalArgumentException if there is no strategy with the given name.
+     */
+    public static Supplier<GuessingStrategy> byName(String name, DictionaryIndex index) {
+        switch (name) {
+            case "frequency":
+                return FrequencyStrategy::new;
+            case "random":
+                return RandomStrategy::new;
+            case "entropy":
+                return () -> new EntropyStrategy(index);
+            default:
+                throw new IllegalArgumentException(String.format("There is no strategy named %s.", name));
+        }
+    }
+
+    /** Guesses the letters in the order of how often they occur in English text, regardless of the word. */
+    public static class FrequencyStrategy implements GuessingStrategy {
+        private static final String ORDER = "etaoinsrhldcumfpgwybvkxjqz";
+
+        @Override
+        public void newGame(int length) { }
+
+        @Override
+        public char nextGuess(char[] pattern, int guessed, int bad) {
+            for (int i = 0; i < ORDER.length(); i++) {
+                char c = ORDER.charAt(i);
+                if ((guessed & 1 << c - 'a') == 0)
+                    return c;
+            }
+            throw new IllegalStateException("Every letter has already been guessed.");
+        }
+    }
+
+    /** Guesses a letter that has not been guessed yet, uniformly at random. */
+    public static class RandomStrategy implements GuessingStrategy {
+        private final SplittableRandom random = new SplittableRandom();
+
+        @Override
+        public void newGame(int length) { }
+
+        @Override
+        public char nextGuess(char[] pattern, int guessed, int bad) {
+            int left = ~guessed & (1 << ALPHABET_SIZE) - 1;
+            if (left == 0)
+                throw new IllegalStateException("Every letter has already been guessed.");
+            for (int skip = random.nextInt(Integer.bitCount(left)); skip > 0; skip--)
+                left &= left - 1;
+            return (char) ('a' + Integer.numberOfTrailingZeros(left));
+        }
+    }
+
+    /**
+     * Guesses the letter that is expected to narrow down the dictionary words consistent with the game the most (see
+     * {@link EntropySolver}). Unlike the other strategies, this one allocates a candidate set for every guess.
+     */
+    public static class EntropyStrategy implements GuessingStrategy {
+        private final EntropySolver solver;
+
+        public EntropyStrategy(DictionaryIndex index) {
+            this.solver = new EntropySolver(index);
+        }
+
+        @Override
+        public void newGame(int length) { }
+
+        @Override
+        public char nextGuess(char[] pattern, int guessed, int bad) {
+            return solver.bestGuess(new String(pattern), guessed, bad);
+        }
+    }
+}
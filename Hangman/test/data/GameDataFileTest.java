@@ -0,0 +1,226 @@
+package data;
+
+import engine.HangmanEngine;
+import engine.HangmanState;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GameDataFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void anEventLogLoadsBack() throws IOException {
+        assertLoadsBack(folder.getRoot().toPath().resolve("game.json"));
+    }
+
+    @Test
+    public void savingTheSameGameAgainOnlyAppends() throws IOException {
+        Path         file  = folder.getRoot().toPath().resolve("game.json");
+        GameDataFile files = new GameDataFile();
+        GameData     game  = game("hangman", "an");
+        files.saveData(game, file);
+        byte[] before = Files.readAllBytes(file);
+
+        game.guess('x');
+        game.guess('g');
+        files.saveData(game, file);
+        byte[] after = Files.readAllBytes(file);
+        assertArrayEquals(before, Arrays.copyOf(after, before.length));
+        assertEquals(2, lines(after).size() - lines(before).size());
+
+        GameData loaded = new GameData(null);
+        new GameDataFile().loadData(loaded, file);
+        assertSameGame(game.getEngine().state(), loaded.getEngine().state());
+    }
+
+    @Test
+    public void anIncompleteLastLineIsSkipped() throws IOException {
+        Path     file = folder.getRoot().toPath().resolve("game.json");
+        GameData game = game("hangman", "an");
+        new GameDataFile().saveData(game, file);
+        Files.write(file, "{\"EVENT\":\"GUESS\",\"LET".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        GameDataFile files  = new GameDataFile();
+        GameData     loaded = new GameData(null);
+        files.loadData(loaded, file);
+        assertSameGame(game.getEngine().state(), loaded.getEngine().state());
+
+        loaded.guess('g'); // rewrites the file, rather than appending to the incomplete line
+        files.saveData(loaded, file);
+        byte[] saved = Files.readAllBytes(file);
+        assertEquals('\n', saved[saved.length - 1]);
+        GameData reloaded = new GameData(null);
+        new GameDataFile().loadData(reloaded, file);
+        assertSameGame(loaded.getEngine().state(), reloaded.getEngine().state());
+    }
+
+    @Test
+    public void aDamagedLineBeforeTheLastIsNotSkipped() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("game.json");
+        new GameDataFile().saveData(game("hangman", "an"), file);
+        Files.write(file, "{\"EVENT\":\"GU\n{\"EVENT\":\"GUESS\",\"LETTER\":\"g\"}\n".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+        GameData loaded = game("other", "o");
+        try {
+            new GameDataFile().loadData(loaded, file);
+            fail("A damaged event log should not be loaded.");
+        } catch (IOException expected) {
+        }
+        assertEquals("other", loaded.getEngine().getTargetWord());
+    }
+
+    @Test
+    public void aBinarySaveLoadsBack() throws IOException {
+        assertLoadsBack(folder.getRoot().toPath().resolve("game.hgm"));
+    }
+
+    @Test
+    public void aBinarySaveWithAnInvalidWordIsRejected() throws IOException {
+        char[] letters = new char[HangmanEngine.MAX_WORD_LENGTH + 1];
+        Arrays.fill(letters, 'a');
+        byte[] tooLong      = GameDataFile.toBinary(new HangmanState(new String(letters), 0, 0, 10, false));
+        byte[] notLowercase = GameDataFile.toBinary(game("hangman", "").getEngine().state());
+        notLowercase[6] = 'H';
+        CRC32 crc = new CRC32();
+        crc.update(notLowercase, 0, notLowercase.length - Integer.BYTES);
+        ByteBuffer.wrap(notLowercase).putInt(notLowercase.length - Integer.BYTES, (int) crc.getValue());
+
+        for (byte[] binary : Arrays.asList(tooLong, notLowercase)) {
+            try {
+                GameDataFile.fromBinary(new DataInputStream(new ByteArrayInputStream(binary)), "The save");
+                fail("A target word that is not valid should be rejected.");
+            } catch (IOException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void concurrentSavesLeaveOneWholeGameAndNoTemporaryFiles() throws Exception {
+        Path            directory = folder.getRoot().toPath();
+        GameDataFile    files     = new GameDataFile();
+        List<Future<?>> saves     = new ArrayList<>();
+        ExecutorService executor  = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 64; i++) {
+                GameData game      = game(i % 2 == 0 ? "hangman" : "durable", i % 3 == 0 ? "a" : "e");
+                String   name      = i % 4 == 0 ? "game" + i % 8 : "shared";
+                String   extension = i % 5 == 0 ? GameDataFile.BINARY_EXTENSION : GameDataFile.JSON_EXTENSION;
+                Path     file      = directory.resolve(name + "." + extension);
+                saves.add(executor.submit(() -> {
+                    files.saveData(game, file);
+                    return null;
+                }));
+            }
+            for (Future<?> save : saves)
+                save.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> saved = Files.newDirectoryStream(directory)) {
+            for (Path file : saved) {
+                names.add(file.getFileName().toString());
+                new GameDataFile().loadData(new GameData(null), file);
+            }
+        }
+        Collections.sort(names);
+        assertEquals(Arrays.asList("game0.hgm", "game0.json", "game4.hgm", "game4.json", "shared.hgm", "shared.json"),
+                     names);
+    }
+
+    @Test
+    public void anExportSkipsTheSavesThatCannotBeRead() throws IOException {
+        Path saves = folder.newFolder("saves").toPath();
+        new GameDataFile().saveData(game("hangman", "an"), saves.resolve("good.json"));
+        new GameDataFile().saveData(game("archive", "e"), saves.resolve("good.hgm"));
+        Files.write(saves.resolve("bad.json"), "not a game\n".getBytes(StandardCharsets.UTF_8));
+        Files.write(saves.resolve("bad.hga"), "not an archive".getBytes(StandardCharsets.UTF_8));
+        Path export = folder.getRoot().toPath().resolve("games.csv");
+        Files.write(export, "an older export\n".getBytes(StandardCharsets.UTF_8));
+
+        List<String> skipped = new ArrayList<>();
+        long exported = GameDataFile.exportGames(saves, export, GameData.TOTAL_NUMBER_OF_GUESSES_ALLOWED,
+                                                 (source, e) -> skipped.add(source));
+        Collections.sort(skipped);
+        assertEquals(2, exported);
+        assertEquals(Arrays.asList("bad.hga", "bad.json"), skipped);
+        List<String> rows = lines(Files.readAllBytes(export));
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(0).startsWith("SOURCE,"));
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder.getRoot().toPath())) {
+            for (Path file : files)
+                assertTrue(file.toString(), file.equals(saves) || file.equals(export));
+        }
+    }
+
+    @Test
+    public void gamesAreOnlyExportedToCsvOrNdjson() throws IOException {
+        Path saves  = folder.newFolder("saves").toPath();
+        Path export = folder.getRoot().toPath().resolve("games.json");
+        try {
+            GameDataFile.exportGames(saves, export, GameData.TOTAL_NUMBER_OF_GUESSES_ALLOWED);
+            fail("A game should not be exported to a .json file.");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertFalse(Files.exists(export));
+    }
+
+    private static void assertLoadsBack(Path file) throws IOException {
+        GameData saved = game("hangman", "anx");
+        new GameDataFile().saveData(saved, file);
+
+        GameData loaded = new GameData(null);
+        new GameDataFile().loadData(loaded, file);
+        assertSameGame(saved.getEngine().state(), loaded.getEngine().state());
+    }
+
+    private static GameData game(String word, String guesses) {
+        GameData game = new GameData(null).setTargetWord(word);
+        for (char letter : guesses.toCharArray())
+            game.guess(letter);
+        return game;
+    }
+
+    private static List<String> lines(byte[] bytes) {
+        return Arrays.asList(new String(bytes, StandardCharsets.UTF_8).split("\n"));
+    }
+
+    static void assertSameGame(HangmanState expected, HangmanState actual) {
+        assertEquals(expected.getTargetWord(), actual.getTargetWord());
+        assertEquals(expected.getGoodGuesses(), actual.getGoodGuesses());
+        assertEquals(expected.getBadGuesses(), actual.getBadGuesses());
+        assertEquals(expected.getRemainingGuesses(), actual.getRemainingGuesses());
+        assertEquals(expected.isHintUsed(), actual.isHintUsed());
+    }
+}
@@ -0,0 +1,95 @@
+package data;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GroupCommitTest {
+
+    @Test
+    public void aSyncCoversEveryWriteTicketedBeforeIt() throws IOException {
+        AtomicInteger syncs  = new AtomicInteger();
+        GroupCommit   commit = new GroupCommit(syncs::incrementAndGet);
+        long          first  = commit.written();
+        long          second = commit.written();
+
+        commit.await(second);
+        commit.await(first);
+        assertEquals(1, syncs.get());
+
+        commit.await(commit.written());
+        assertEquals(2, syncs.get());
+    }
+
+    @Test
+    public void writersWaitingForASyncShareTheNextOne() throws Exception {
+        CountDownLatch started  = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        AtomicInteger  syncs    = new AtomicInteger();
+        GroupCommit commit = new GroupCommit(() -> {
+            if (syncs.incrementAndGet() == 1) { // hold the first sync until the other writers have written
+                started.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        try {
+            long            ticket  = commit.written();
+            List<Future<?>> waiters = new ArrayList<>();
+            waiters.add(executor.submit(() -> {
+                commit.await(ticket);
+                return null;
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 8; i++) {
+                long later = commit.written();
+                waiters.add(executor.submit(() -> {
+                    commit.await(later);
+                    return null;
+                }));
+            }
+            released.countDown();
+            for (Future<?> waiter : waiters)
+                waiter.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(2, syncs.get());
+    }
+
+    @Test
+    public void aFailedSyncIsRunAgainByTheNextWait() throws IOException {
+        AtomicInteger syncs = new AtomicInteger();
+        GroupCommit commit = new GroupCommit(() -> {
+            if (syncs.incrementAndGet() == 1)
+                throw new IOException("The disk is full.");
+        });
+        long ticket = commit.written();
+        try {
+            commit.await(ticket);
+            fail("The failed sync should have been reported.");
+        } catch (IOException e) {
+            assertEquals("The disk is full.", e.getMessage());
+        }
+
+        commit.await(ticket);
+        assertEquals(2, syncs.get());
+    }
+}
@@ -0,0 +1,176 @@
+package data;
+
+import engine.HangmanEngine;
+import engine.HangmanState;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.TreeSet;
+
+import static data.GameDataFileTest.assertSameGame;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SaveArchiveTest {
+
+    private static final HangmanState FIRST  = state("hangman", "an", "xz", 8);
+    private static final HangmanState SECOND = state("archive", "ae", "q", 9);
+    private static final HangmanState THIRD  = state("compact", "cmp", "", 10);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void slotsOutliveTheArchive() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("games.hga");
+        try (SaveArchive archive = new SaveArchive(file)) {
+            archive.put("first", SECOND);
+            archive.put("second", SECOND);
+            archive.put("first", FIRST);
+            archive.put("third", THIRD);
+            assertTrue(archive.remove("third"));
+            assertFalse(archive.remove("third"));
+        }
+        try (SaveArchive archive = new SaveArchive(file, true)) {
+            assertEquals(new TreeSet<>(Arrays.asList("first", "second")), archive.slots());
+            assertSameGame(FIRST, archive.get("first"));
+            assertSameGame(SECOND, archive.get("second"));
+            assertNull(archive.get("third"));
+        }
+    }
+
+    @Test
+    public void anInterruptedLastRecordIsCutOff() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("games.hga");
+        try (SaveArchive archive = new SaveArchive(file)) {
+            archive.put("first", FIRST);
+        }
+        long intact = Files.size(file);
+        try (SaveArchive archive = new SaveArchive(file)) {
+            archive.put("second", SECOND);
+        }
+        truncate(file, intact + 5); // partway through the record of the second slot
+
+        try (SaveArchive archive = new SaveArchive(file)) {
+            assertEquals(new TreeSet<>(Arrays.asList("first")), archive.slots());
+            assertSameGame(FIRST, archive.get("first"));
+            assertEquals(intact, Files.size(file));
+            archive.put("second", SECOND);
+        }
+        try (SaveArchive archive = new SaveArchive(file)) {
+            assertSameGame(SECOND, archive.get("second"));
+        }
+    }
+
+    @Test
+    public void zerosAfterTheLastRecordAreCutOff() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("games.hga");
+        try (SaveArchive archive = new SaveArchive(file)) {
+            archive.put("first", FIRST);
+        }
+        long intact = Files.size(file);
+        Files.write(file, new byte[100], StandardOpenOption.APPEND);
+
+        try (SaveArchive archive = new SaveArchive(file)) {
+            assertSameGame(FIRST, archive.get("first"));
+            assertEquals(intact, Files.size(file));
+        }
+    }
+
+    @Test
+    public void aDamagedRecordBeforeTheLastOneIsNotCutOff() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("games.hga");
+        try (SaveArchive archive = new SaveArchive(file)) {
+            archive.put("first", FIRST);
+            archive.put("second", SECOND);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES), 8); // no index, so that every record is read
+            channel.write(ByteBuffer.wrap(new byte[]{'F'}), 16 + 11); // the name of the first slot
+        }
+        byte[] damaged = Files.readAllBytes(file);
+
+        for (boolean readOnly : new boolean[]{true, false}) {
+            try {
+                new SaveArchive(file, readOnly).close();
+                fail("A corrupted archive should not be opened.");
+            } catch (IOException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("corrupted at offset 16"));
+            }
+        }
+        assertArrayEquals(damaged, Files.readAllBytes(file));
+    }
+
+    @Test
+    public void compactionKeepsOnlyTheLatestGames() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("games.hga");
+        try (SaveArchive archive = new SaveArchive(file)) {
+            for (int i = 0; i < 10; i++) {
+                archive.put("first", SECOND);
+                archive.put("second", THIRD);
+            }
+            archive.put("first", FIRST);
+            archive.put("third", THIRD);
+            archive.remove("third");
+            long size    = Files.size(file);
+            long garbage = archive.getGarbage();
+
+            archive.compact();
+            assertTrue(archive.getGarbage() < garbage);
+            assertTrue(Files.size(file) < size);
+            assertSameGame(FIRST, archive.get("first"));
+            assertSameGame(THIRD, archive.get("second"));
+            archive.put("second", SECOND);
+        }
+        assertFalse(Files.exists(file.resolveSibling("games.hga.compacting")));
+        try (SaveArchive archive = new SaveArchive(file)) {
+            assertEquals(new TreeSet<>(Arrays.asList("first", "second")), archive.slots());
+            assertSameGame(FIRST, archive.get("first"));
+            assertSameGame(SECOND, archive.get("second"));
+        }
+    }
+
+    @Test
+    public void aFailedCompactionLeavesTheArchiveUsable() throws IOException {
+        Path file       = folder.getRoot().toPath().resolve("games.hga");
+        Path compacting = Files.createDirectory(file.resolveSibling("games.hga.compacting"));
+        try (SaveArchive archive = new SaveArchive(file)) {
+            archive.put("first", SECOND);
+            archive.put("first", FIRST);
+            try {
+                archive.compact();
+                fail("The compacted archive cannot be written over a directory.");
+            } catch (IOException expected) {
+            }
+            assertTrue(Files.isDirectory(compacting)); // not the archive's to delete
+            assertSameGame(FIRST, archive.get("first"));
+            archive.put("second", SECOND);
+        }
+        try (SaveArchive archive = new SaveArchive(file)) {
+            assertSameGame(FIRST, archive.get("first"));
+            assertSameGame(SECOND, archive.get("second"));
+        }
+    }
+
+    private static HangmanState state(String word, String good, String bad, int remaining) {
+        return new HangmanState(word, HangmanEngine.maskOf(good), HangmanEngine.maskOf(bad), remaining, false);
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+}
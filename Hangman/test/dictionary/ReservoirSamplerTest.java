@@ -0,0 +1,102 @@
+package dictionary;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ReservoirSamplerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void onlyValidWordsArePicked() throws IOException {
+        char[] tooLong = new char[WordSource.MAX_WORD_LENGTH + 1];
+        Arrays.fill(tooLong, 'a');
+        Path file = words("apple", "Banana\r", "cherry pie", "d4te", "", "ele\rphant", new String(tooLong), "fig");
+
+        List<String> sample = new ReservoirSampler(file, new Random(1)).sample(10);
+        assertEquals(new HashSet<>(Arrays.asList("apple", "banana", "fig")), new HashSet<>(sample));
+        assertEquals(3, sample.size());
+    }
+
+    @Test
+    public void aSampleHasDistinctWordsOfTheList() throws IOException {
+        List<String> all = new ArrayList<>();
+        for (int i = 0; i < 5000; i++)
+            all.add(word(i));
+        Path file = words(all.toArray(new String[0]));
+
+        List<String> sample = new ReservoirSampler(file, new Random(2)).sample(100);
+        assertEquals(100, sample.size());
+        assertEquals(100, new HashSet<>(sample).size());
+        assertTrue(all.containsAll(sample));
+    }
+
+    @Test
+    public void everyWordIsAboutAsLikelyToBePicked() throws IOException {
+        Path                 file    = words("alpha", "bravo", "charlie", "delta", "echo");
+        ReservoirSampler     sampler = new ReservoirSampler(file, new Random(3));
+        Map<String, Integer> picked  = new HashMap<>();
+        int                  samples = 5000;
+        for (int i = 0; i < samples; i++) {
+            for (String word : sampler.sample(2))
+                picked.merge(word, 1, Integer::sum);
+        }
+        assertEquals(5, picked.size());
+        for (int count : picked.values()) // 2000 expected, with a standard deviation of about 35
+            assertTrue(String.valueOf(count), Math.abs(count - 2 * samples / 5) < 200);
+    }
+
+    @Test
+    public void theSelectorDrawsFromBatches() throws IOException {
+        Supplier<String> selector = new ReservoirSampler(words("one", "two", "three"), new Random(4)).selector(2);
+        List<String>     drawn    = new ArrayList<>();
+        for (int i = 0; i < 4; i++)
+            drawn.add(selector.get());
+        assertTrue(Arrays.asList("one", "two", "three").containsAll(drawn));
+        assertTrue(!drawn.get(0).equals(drawn.get(1)) && !drawn.get(2).equals(drawn.get(3)));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void theSelectorFailsWithoutValidWords() throws IOException {
+        new ReservoirSampler(words("42", "not a word"), new Random(5)).selector(4).get();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void aSampleMustHaveWords() throws IOException {
+        new ReservoirSampler(words("word"), new Random(6)).sample(0);
+    }
+
+    private Path words(String... lines) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private static String word(int i) {
+        StringBuilder word = new StringBuilder();
+        do {
+            word.append((char) ('a' + i % 26));
+            i /= 26;
+        } while (i > 0);
+        return word.toString();
+    }
+}
@@ -0,0 +1,110 @@
+package engine;
+
+/**
+ * Something that happened in a game. A game can be recorded as the sequence of its events, from the event that started
+ * it, and replayed by applying them in order to an engine. Instead of starting from scratch, a sequence may start from
+ * a checkpoint, which holds a snapshot of the game, e.g., when the earlier events are not known.
+ */
+public final class GameEvent {
+
+    public enum Type {
+        /** A new game, with the target word. */
+        GAME_STARTED,
+        /** A good or a bad guess, with the guessed letter. */
+        GUESS,
+        /** The hint, with the revealed letter. */
+        HINT_USED,
+        /** A snapshot of the game. */
+        CHECKPOINT
+    }
+
+    private final Type         type;
+    private final String       targetWord; // for GAME_STARTED
+    private final char         letter;     // for GUESS and HINT_USED
+    private final HangmanState state;      // for CHECKPOINT
+
+    private GameEvent(Type type, String targetWord, char letter, HangmanState state) {
+        this.type = type;
+        this.targetWord = targetWord;
+        this.letter = letter;
+        this.state = state;
+    }
+
+    public static GameEvent gameStarted(String targetWord) {
+        return new GameEvent(Type.GAME_STARTED, targetWord, '\0', null);
+    }
+
+    public static GameEvent guess(char letter) {
+        return new GameEvent(Type.GUESS, null, letter, null);
+    }
+
+    public static GameEvent hintUsed(char letter) {
+        return new GameEvent(Type.HINT_USED, null, letter, null);
+    }
+
+    public static GameEvent checkpoint(HangmanState state) {
+        return new GameEvent(Type.CHECKPOINT, null, '\0', state);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /** @return the target word of a {@link Type#GAME_STARTED} event, or {@code null} for any other event. */
+    public String getTargetWord() {
+        return targetWord;
+    }
+
+    /** @return the letter of a {@link Type#GUESS} or {@link Type#HINT_USED} event, or {@code '\0'} for any other. */
+    public char getLetter() {
+        return letter;
+    }
+
+    /** @return the snapshot of a {@link Type#CHECKPOINT} event, or {@code null} for any other event. */
+    public HangmanState getState() {
+        return state;
+    }
+
+    /** @return {@code true} if this event starts a sequence, i.e., it does not depend on any earlier event. */
+    public boolean isStart() {
+        return type == Type.GAME_STARTED || type == Type.CHECKPOINT;
+    }
+
+    /**
+     * Replays this event.
+     *
+     * @param engine The engine playing the game, in the state that it was in just before this event.
+     * @throws IllegalStateException if the event could not have happened in that state.
+     */
+    public void applyTo(HangmanEngine engine) {
+        switch (type) {
+            case GAME_STARTED:
+                engine.newGame(targetWord);
+                break;
+            case GUESS:
+                GuessResult result = engine.guess(letter);
+                if (result != GuessResult.GOOD && result != GuessResult.BAD)
+                    throw new IllegalStateException(String.format("The guess '%c' cannot be replayed (%s).", letter,
+                                                                  result));
+                break;
+            case HINT_USED:
+                engine.hint(letter);
+                break;
+            case CHECKPOINT:
+                engine.restore(state);
+                break;
+        }
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case GAME_STARTED:
+                return String.format("%s(%s)", type, targetWord);
+            case CHECKPOINT:
+                return String.format("%s(%s)", type, state);
+            default:
+                return String.format("%s(%c)", type, letter);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package engine;
+
+/**
+ * The outcome of guessing a letter with {@link HangmanEngine#guess(char)}.
+ */
+public enum GuessResult {
+    /** The letter is in the target word, and all its occurrences have been revealed. */
+    GOOD,
+    /** The letter is not in the target word, and a guess has been used up. */
+    BAD,
+    /** The letter had already been guessed, so nothing has changed. */
+    REPEATED,
+    /** The character is not a lowercase letter, so nothing has changed. */
+    INVALID,
+    /** There is no game in progress, so nothing has changed. */
+    GAME_OVER
+}
@@ -0,0 +1,312 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The rules of Hangman, for one game at a time, with no dependency on any user interface. A guess is resolved with a
+ * couple of bit operations: the guessed letters are kept as 26-bit masks (bit {@code i} stands for the letter
+ * {@code 'a' + i}), and when a game is started, the positions at which each letter occurs in the target word are
+ * recorded as a 64-bit mask (bit {@code p} stands for position {@code p}).
+ * <p>
+ * A hint reveals a letter that has not been guessed yet, and costs a guess. It can be used once per game, only if the
+ * target word has more than a threshold number of distinct letters, and only while more than one guess remains. The
+ * letter is picked by a {@link HintStrategy} from the mask of the letters that are still hidden, so a hint takes the
+ * same time however much of the word has been revealed.
+ * <p>
+ * An engine is not thread-safe; each game should be played from one thread at a time.
+ */
+public class HangmanEngine {
+
+    public static final int ALPHABET_SIZE           = 26;
+    public static final int MAX_WORD_LENGTH         = Long.SIZE; // so that the positions of a letter fit in a mask
+    public static final int DEFAULT_ALLOWED_GUESSES = 10;
+    public static final int DEFAULT_HINT_THRESHOLD  = 7;
+
+    private final int          allowedGuesses; // the number of bad guesses that lose a game
+    private final int          hintThreshold;  // a hint is given only for words with more distinct letters than this
+    private final Random       random;         // used to pick the letter revealed by a hint
+    private final HintStrategy hintStrategy;   // picks the letter revealed by a hint
+    private final long[]       positionMasks;  // positionMasks[c] has bit p set if the target has 'a' + c at p
+
+    private String  targetWord;
+    private int     targetMask;       // the distinct letters in the target word
+    private int     distinctLetters;  // the number of bits in targetMask, counted once per game
+    private int     goodGuesses;      // the letters guessed so far that are in the target word
+    private int     badGuesses;       // the letters guessed so far that cost a guess
+    private int     remainingGuesses;
+    private boolean hintUsed;
+
+    public HangmanEngine() {
+        this(DEFAULT_ALLOWED_GUESSES, DEFAULT_HINT_THRESHOLD, new Random());
+    }
+
+    /**
+     * @param allowedGuesses The number of bad guesses that lose a game.
+     * @param hintThreshold  A hint is only given for target words with more distinct letters than this.
+     * @param random         The source of randomness for the letter revealed by a hint.
+     */
+    public HangmanEngine(int allowedGuesses, int hintThreshold, Random random) {
+        this(allowedGuesses, hintThreshold, random, HintStrategies.RANDOM_POSITION);
+    }
+
+    /**
+     * @param allowedGuesses The number of bad guesses that lose a game.
+     * @param hintThreshold  A hint is only given for target words with more distinct letters than this.
+     * @param random         The source of randomness for the letter revealed by a hint.
+     * @param hintStrategy   Picks the letter revealed by a hint.
+     */
+    public HangmanEngine(int allowedGuesses, int hintThreshold, Random random, HintStrategy hintStrategy) {
+        if (allowedGuesses < 1)
+            throw new IllegalArgumentException("At least one guess must be allowed.");
+        this.allowedGuesses = allowedGuesses;
+        this.hintThreshold = hintThreshold;
+        this.random = random;
+        this.hintStrategy = hintStrategy;
+        this.positionMasks = new long[ALPHABET_SIZE];
+        clear();
+    }
+
+    /**
+     * @param letters Any number of lowercase letters.
+     * @return the 26-bit mask of the given letters.
+     * @throws IllegalArgumentException if any of the characters is not a lowercase letter.
+     */
+    public static int maskOf(CharSequence letters) {
+        int mask = 0;
+        for (int i = 0; i < letters.length(); i++)
+            mask |= bitOf(letters.charAt(i));
+        return mask;
+    }
+
+    private static int bitOf(char c) {
+        if (c < 'a' || c > 'z')
+            throw new IllegalArgumentException(String.format("'%c' is not a lowercase letter.", c));
+        return 1 << c - 'a';
+    }
+
+    /**
+     * Starts a new game.
+     *
+     * @param word The target word, made up of 1 to {@value #MAX_WORD_LENGTH} lowercase letters.
+     * @throws IllegalArgumentException if the word is not a valid target word.
+     */
+    public void newGame(String word) {
+        if (word == null || word.isEmpty() || word.length() > MAX_WORD_LENGTH)
+            throw new IllegalArgumentException(String.format("%s is not a valid target word.", word));
+        Arrays.fill(positionMasks, 0L);
+        int mask = 0;
+        for (int p = 0; p < word.length(); p++) {
+            int bit = bitOf(word.charAt(p));
+            positionMasks[Integer.numberOfTrailingZeros(bit)] |= 1L << p;
+            mask |= bit;
+        }
+        this.targetWord = word;
+        this.targetMask = mask;
+        this.distinctLetters = Integer.bitCount(mask);
+        this.goodGuesses = 0;
+        this.badGuesses = 0;
+        this.remainingGuesses = allowedGuesses;
+        this.hintUsed = false;
+    }
+
+    /** Ends the current game, if any, without starting another one. */
+    public void clear() {
+        Arrays.fill(positionMasks, 0L);
+        this.targetWord = null;
+        this.targetMask = 0;
+        this.distinctLetters = 0;
+        this.goodGuesses = 0;
+        this.badGuesses = 0;
+        this.remainingGuesses = allowedGuesses;
+        this.hintUsed = false;
+    }
+
+    /**
+     * Resumes a game, e.g., one that has been saved. Every bad guess is taken to have cost one guess.
+     *
+     * @param word        The target word.
+     * @param goodGuesses The letters guessed so far that are in the target word, as a 26-bit mask.
+     * @param badGuesses  The letters guessed so far that cost a guess, as a 26-bit mask.
+     * @param hintUsed    Whether the hint has been used.
+     * @throws IllegalArgumentException if the word is not a valid target word.
+     */
+    public void restore(String word, int goodGuesses, int badGuesses, boolean hintUsed) {
+        if (!word.equals(targetWord))
+            newGame(word);
+        int letters = (1 << ALPHABET_SIZE) - 1;
+        this.goodGuesses = goodGuesses & letters;
+        this.badGuesses = badGuesses & letters;
+        this.remainingGuesses = allowedGuesses - Integer.bitCount(this.badGuesses);
+        this.hintUsed = hintUsed;
+    }
+
+    /**
+     * Resumes a game from a snapshot.
+     *
+     * @param state The snapshot of the game, as taken by {@link #state()}.
+     */
+    public void restore(HangmanState state) {
+        if (state.getTargetWord() == null) {
+            clear();
+            return;
+        }
+        restore(state.getTargetWord(), state.getGoodGuesses(), state.getBadGuesses(), state.isHintUsed());
+        this.remainingGuesses = state.getRemainingGuesses();
+    }
+
+    /**
+     * Guesses a letter. If it is in the target word, all its occurrences are revealed; otherwise, a guess is used up.
+     *
+     * @param c The guessed letter.
+     * @return the outcome of the guess.
+     */
+    public GuessResult guess(char c) {
+        if (c < 'a' || c > 'z')
+            return GuessResult.INVALID;
+        if (targetWord == null || isOver())
+            return GuessResult.GAME_OVER;
+        int bit = 1 << c - 'a';
+        if (((goodGuesses | badGuesses) & bit) != 0)
+            return GuessResult.REPEATED;
+        if ((targetMask & bit) != 0) {
+            goodGuesses |= bit;
+            return GuessResult.GOOD;
+        }
+        badGuesses |= bit;
+        remainingGuesses--;
+        return GuessResult.BAD;
+    }
+
+    /**
+     * Uses the hint: reveals a letter of the target word that has not been guessed yet, picked by the engine's
+     * {@link HintStrategy}, and uses up a guess.
+     *
+     * @return the revealed letter.
+     * @throws IllegalStateException if the hint is not available (see {@link #isHintAvailable()}), or if the strategy
+     *                               picks a letter that is not hidden.
+     */
+    public char hint() {
+        if (!isHintAvailable())
+            throw new IllegalStateException("No hint is available.");
+        return hint(hintStrategy.choose(this, getHiddenLetters(), random));
+    }
+
+    /**
+     * Uses the hint to reveal the given letter, e.g., when a saved game is replayed, and uses up a guess.
+     *
+     * @param letter A letter of the target word that has not been guessed yet.
+     * @return the revealed letter.
+     * @throws IllegalStateException if the hint is not available (see {@link #isHintAvailable()}), or if the letter is
+     *                               not hidden.
+     */
+    public char hint(char letter) {
+        if (!isHintAvailable())
+            throw new IllegalStateException("No hint is available.");
+        int bit = letter >= 'a' && letter <= 'z' ? 1 << letter - 'a' : 0;
+        if ((getHiddenLetters() & bit) == 0)
+            throw new IllegalStateException(String.format("'%c' is not a hidden letter.", letter));
+        goodGuesses |= bit;
+        if ((badGuesses & bit) == 0) {
+            badGuesses |= bit;
+            remainingGuesses--;
+        }
+        hintUsed = true;
+        return letter;
+    }
+
+    /** @return a snapshot of the current game. */
+    public HangmanState state() {
+        return new HangmanState(targetWord, goodGuesses, badGuesses, remainingGuesses, hintUsed);
+    }
+
+    /** @return the target word, or {@code null} if there is no game. */
+    public String getTargetWord() {
+        return targetWord;
+    }
+
+    /** @return the distinct letters in the target word, as a 26-bit mask. */
+    public int getTargetMask() {
+        return targetMask;
+    }
+
+    /** @return the letters of the target word that have not been revealed yet, as a 26-bit mask. */
+    public int getHiddenLetters() {
+        return targetMask & ~goodGuesses;
+    }
+
+    /**
+     * @param c Any character.
+     * @return the positions at which the letter occurs in the target word, as a mask with bit {@code p} set for
+     * position {@code p}, or {@code 0} if it does not occur in it (or is not a lowercase letter).
+     */
+    public long positionsOf(char c) {
+        return c >= 'a' && c <= 'z' ? positionMasks[c - 'a'] : 0L;
+    }
+
+    /** @return the positions of the target word that have been revealed, as a mask. */
+    public long getRevealedPositions() {
+        long revealed = 0;
+        for (int letters = goodGuesses; letters != 0; letters &= letters - 1)
+            revealed |= positionMasks[Integer.numberOfTrailingZeros(letters)];
+        return revealed;
+    }
+
+    /**
+     * @param c Any character.
+     * @return {@code true} if the letter has already been guessed, whether or not it was in the target word.
+     */
+    public boolean isGuessed(char c) {
+        return c >= 'a' && c <= 'z' && ((goodGuesses | badGuesses) & 1 << c - 'a') != 0;
+    }
+
+    /** @return the letters guessed so far that are in the target word, as a 26-bit mask. */
+    public int getGoodGuesses() {
+        return goodGuesses;
+    }
+
+    /** @return the letters guessed so far that cost a guess, as a 26-bit mask. */
+    public int getBadGuesses() {
+        return badGuesses;
+    }
+
+    public int getRemainingGuesses() {
+        return remainingGuesses;
+    }
+
+    public int getAllowedGuesses() {
+        return allowedGuesses;
+    }
+
+    public boolean isHintUsed() {
+        return hintUsed;
+    }
+
+    /** @return {@code true} if the target word has enough distinct letters for a hint to be given. */
+    public boolean isHintable() {
+        return distinctLetters > hintThreshold;
+    }
+
+    /** @return {@code true} if the hint can be used right now. */
+    public boolean isHintAvailable() {
+        return getStatus() == HangmanState.Status.IN_PROGRESS && !hintUsed && isHintable() && remainingGuesses > 1;
+    }
+
+    /** @return {@code true} if every letter in the target word has been guessed. */
+    public boolean isSolved() {
+        return targetWord != null && getHiddenLetters() == 0;
+    }
+
+    /** @return {@code true} if the game has been won or lost. */
+    public boolean isOver() {
+        return isSolved() || targetWord != null && remainingGuesses <= 0;
+    }
+
+    public HangmanState.Status getStatus() {
+        if (targetWord == null)
+            return HangmanState.Status.NOT_STARTED;
+        if (isSolved())
+            return HangmanState.Status.WON;
+        return remainingGuesses <= 0 ? HangmanState.Status.LOST : HangmanState.Status.IN_PROGRESS;
+    }
+}
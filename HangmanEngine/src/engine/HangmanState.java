@@ -0,0 +1,90 @@
+package engine;
+
+/**
+ * An immutable snapshot of a game of Hangman. The guessed letters are given as 26-bit masks, where bit {@code i} stands
+ * for the letter {@code 'a' + i}.
+ */
+public final class HangmanState {
+
+    public enum Status {
+        NOT_STARTED,
+        IN_PROGRESS,
+        WON,
+        LOST
+    }
+
+    private final String  targetWord;
+    private final int     goodGuesses;
+    private final int     badGuesses;
+    private final int     remainingGuesses;
+    private final boolean hintUsed;
+    private final Status  status;
+
+    public HangmanState(String targetWord, int goodGuesses, int badGuesses, int remainingGuesses, boolean hintUsed) {
+        this.targetWord = targetWord;
+        this.goodGuesses = goodGuesses;
+        this.badGuesses = badGuesses;
+        this.remainingGuesses = remainingGuesses;
+        this.hintUsed = hintUsed;
+        if (targetWord == null)
+            this.status = Status.NOT_STARTED;
+        else if ((HangmanEngine.maskOf(targetWord) & ~goodGuesses) == 0)
+            this.status = Status.WON;
+        else if (remainingGuesses <= 0)
+            this.status = Status.LOST;
+        else
+            this.status = Status.IN_PROGRESS;
+    }
+
+    /** @return the target word, or {@code null} if no game has been started. */
+    public String getTargetWord() {
+        return targetWord;
+    }
+
+    /** @return the letters guessed so far that are in the target word, as a 26-bit mask. */
+    public int getGoodGuesses() {
+        return goodGuesses;
+    }
+
+    /** @return the letters guessed so far that cost a guess, as a 26-bit mask. */
+    public int getBadGuesses() {
+        return badGuesses;
+    }
+
+    public int getRemainingGuesses() {
+        return remainingGuesses;
+    }
+
+    public boolean isHintUsed() {
+        return hintUsed;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /** @return {@code true} if the game has been won or lost. */
+    public boolean isOver() {
+        return status == Status.WON || status == Status.LOST;
+    }
+
+    /**
+     * @return the target word as revealed so far, with {@code '_'} at every position that has not been revealed, e.g.,
+     * {@code "_a__e_"}, or the empty string if no game has been started.
+     */
+    public String getPattern() {
+        if (targetWord == null)
+            return "";
+        char[] pattern = new char[targetWord.length()];
+        for (int i = 0; i < pattern.length; i++) {
+            char c = targetWord.charAt(i);
+            pattern[i] = (goodGuesses & 1 << c - 'a') != 0 ? c : '_';
+        }
+        return new String(pattern);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s (%d guesses left)", status, getPattern(), remainingGuesses);
+    }
+}
@@ -0,0 +1,70 @@
+package engine;
+
+import java.util.Random;
+
+/**
+ * The built-in ways of picking the letter revealed by a hint. Each of them looks at no more than the 26 bits of the
+ * hidden letters, however long the target word is.
+ */
+public enum HintStrategies implements HintStrategy {
+
+    /** A hidden position of the target word, picked at random, so a letter is as likely as the number of its places. */
+    RANDOM_POSITION {
+        @Override
+        public char choose(HangmanEngine game, int hidden, Random random) {
+            int total = 0;
+            for (int letters = hidden; letters != 0; letters &= letters - 1)
+                total += Long.bitCount(game.positionsOf(letterOf(letters)));
+            int pick = random.nextInt(total);
+            for (int letters = hidden; ; letters &= letters - 1) {
+                pick -= Long.bitCount(game.positionsOf(letterOf(letters)));
+                if (pick < 0)
+                    return letterOf(letters);
+            }
+        }
+    },
+
+    /** A hidden letter, picked at random. */
+    RANDOM_LETTER {
+        @Override
+        public char choose(HangmanEngine game, int hidden, Random random) {
+            for (int skip = random.nextInt(Integer.bitCount(hidden)); skip > 0; skip--)
+                hidden &= hidden - 1;
+            return letterOf(hidden);
+        }
+    },
+
+    /** The hidden letter that is the least common in English text, and so the hardest to guess. */
+    RAREST_LETTER {
+        @Override
+        public char choose(HangmanEngine game, int hidden, Random random) {
+            for (int i = BY_FREQUENCY.length() - 1; ; i--) {
+                if ((hidden & 1 << BY_FREQUENCY.charAt(i) - 'a') != 0)
+                    return BY_FREQUENCY.charAt(i);
+            }
+        }
+    },
+
+    /** The hidden letter that reveals the most positions; ties go to the least common letter in English text. */
+    MOST_POSITIONS {
+        @Override
+        public char choose(HangmanEngine game, int hidden, Random random) {
+            char best  = 0;
+            int  count = 0;
+            for (int i = BY_FREQUENCY.length() - 1; i >= 0; i--) {
+                char c = BY_FREQUENCY.charAt(i);
+                if ((hidden & 1 << c - 'a') != 0 && Long.bitCount(game.positionsOf(c)) > count) {
+                    best = c;
+                    count = Long.bitCount(game.positionsOf(c));
+                }
+            }
+            return best;
+        }
+    };
+
+    private static final String BY_FREQUENCY = "etaoinsrhldcumfpgwybvkxjqz"; // from the most to the least common
+
+    private static char letterOf(int letters) {
+        return (char) ('a' + Integer.numberOfTrailingZeros(letters));
+    }
+}
@@ -0,0 +1,18 @@
+package engine;
+
+import java.util.Random;
+
+/**
+ * Picks the letter revealed by a hint. The engine keeps the letters of the target word that have not been revealed yet
+ * as a mask, so a strategy only has to pick one of its bits; the built-in ones are in {@link HintStrategies}.
+ */
+public interface HintStrategy {
+
+    /**
+     * @param game   The game in which the hint is being used, e.g., to look up {@link HangmanEngine#positionsOf(char)}.
+     * @param hidden The letters of the target word that have not been revealed yet, as a 26-bit mask; never {@code 0}.
+     * @param random The engine's source of randomness.
+     * @return one of the hidden letters.
+     */
+    char choose(HangmanEngine game, int hidden, Random random);
+}
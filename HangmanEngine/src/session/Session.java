@@ -0,0 +1,39 @@
+package session;
+
+import engine.HangmanEngine;
+
+/**
+ * One player's game, as held by a {@link SessionRegistry}. All access to the engine has to be synchronized on the
+ * session itself, which the registry does for every operation it offers, so games in different sessions never
+ * contend with each other.
+ */
+public final class Session {
+
+    private final String        id;
+    private final HangmanEngine engine;
+    private volatile long       lastAccess; // System.nanoTime() of the last operation on this session
+
+    Session(String id, HangmanEngine engine) {
+        this.id = id;
+        this.engine = engine;
+        touch();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /** @return the engine of this session; it must only be used while holding the session's monitor. */
+    HangmanEngine getEngine() {
+        return engine;
+    }
+
+    void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    /** @return the time, as given by {@link System#nanoTime()}, at which this session was last used. */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+}
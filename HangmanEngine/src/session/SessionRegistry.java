@@ -0,0 +1,188 @@
+package session;
+
+import engine.GuessResult;
+import engine.HangmanEngine;
+import engine.HangmanState;
+
+import java.io.Closeable;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Hosts any number of independent games in one JVM, each in its own {@link Session}, keyed by a random session ID.
+ * The IDs are random UUIDs, which come from a cryptographically strong generator, so that the ID of one player's
+ * session cannot be worked out from those of others.
+ * The sessions are kept in a concurrent hash map, and every operation locks only the session it is applied to, so
+ * guesses in different sessions proceed in parallel and never wait for each other. A session that has not been used
+ * for longer than the idle timeout is expired by a background thread, so the memory taken up by abandoned games stays
+ * bounded.
+ */
+public class SessionRegistry implements Closeable {
+
+    private final ConcurrentMap<String, Session> sessions;
+    private final Supplier<String>               words;       // selects the target word of every new game
+    private final Supplier<HangmanEngine>        engines;     // creates the engine of every new session
+    private final long                           idleTimeout; // in nanoseconds
+    private final ScheduledExecutorService       expiry;      // periodically removes the idle sessions
+
+    /**
+     * Creates a registry, with engines that have the default rules.
+     *
+     * @param words       Selects the target word of every new game. It may be called from any thread.
+     * @param idleTimeout How long a session may go unused before it is expired.
+     * @param unit        The unit of the idle timeout.
+     */
+    public SessionRegistry(Supplier<String> words, long idleTimeout, TimeUnit unit) {
+        this(words, HangmanEngine::new, idleTimeout, unit);
+    }
+
+    /**
+     * @param words       Selects the target word of every new game. It may be called from any thread.
+     * @param engines     Creates the engine of every new session.
+     * @param idleTimeout How long a session may go unused before it is expired.
+     * @param unit        The unit of the idle timeout.
+     */
+    public SessionRegistry(Supplier<String> words, Supplier<HangmanEngine> engines, long idleTimeout, TimeUnit unit) {
+        if (idleTimeout <= 0)
+            throw new IllegalArgumentException("The idle timeout must be positive.");
+        this.sessions = new ConcurrentHashMap<>();
+        this.words = words;
+        this.engines = engines;
+        this.idleTimeout = unit.toNanos(idleTimeout);
+        this.expiry = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(unit.toMillis(idleTimeout) / 2, 1);
+        this.expiry.scheduleWithFixedDelay(this::expireIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a new session, and starts a game in it.
+     *
+     * @return the ID of the new session.
+     */
+    public String open() {
+        HangmanEngine engine = engines.get();
+        engine.newGame(words.get());
+        while (true) {
+            String id = UUID.randomUUID().toString();
+            if (sessions.putIfAbsent(id, new Session(id, engine)) == null)
+                return id;
+        }
+    }
+
+    /**
+     * Starts a new game in a session, abandoning the game that was being played in it.
+     *
+     * @param id The ID of the session.
+     * @return the state of the new game.
+     * @throws NoSuchElementException if there is no such session, e.g., because it has expired.
+     */
+    public HangmanState newGame(String id) {
+        Session session = session(id);
+        String  word    = words.get(); // selected before taking the lock, in case it is slow
+        synchronized (session) {
+            session.getEngine().newGame(word);
+            return session.getEngine().state();
+        }
+    }
+
+    /**
+     * Guesses a letter in the game being played in a session.
+     *
+     * @param id The ID of the session.
+     * @param c  The guessed letter.
+     * @return the outcome of the guess.
+     * @throws NoSuchElementException if there is no such session, e.g., because it has expired.
+     */
+    public GuessResult guess(String id, char c) {
+        Session session = session(id);
+        synchronized (session) {
+            return session.getEngine().guess(c);
+        }
+    }
+
+    /**
+     * Uses the hint in the game being played in a session.
+     *
+     * @param id The ID of the session.
+     * @return the revealed letter.
+     * @throws NoSuchElementException if there is no such session, e.g., because it has expired.
+     * @throws IllegalStateException  if the hint is not available.
+     */
+    public char hint(String id) {
+        Session session = session(id);
+        synchronized (session) {
+            return session.getEngine().hint();
+        }
+    }
+
+    /**
+     * @param id The ID of the session.
+     * @return a snapshot of the game being played in the session.
+     * @throws NoSuchElementException if there is no such session, e.g., because it has expired.
+     */
+    public HangmanState state(String id) {
+        Session session = session(id);
+        synchronized (session) {
+            return session.getEngine().state();
+        }
+    }
+
+    /**
+     * Closes a session, abandoning the game that was being played in it.
+     *
+     * @param id The ID of the session.
+     * @return {@code true} if the session was open.
+     */
+    public boolean close(String id) {
+        return sessions.remove(id) != null;
+    }
+
+    /** @return the number of open sessions. */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Closes every session that has been idle for longer than the idle timeout. This is done periodically in the
+     * background, but may also be called directly.
+     *
+     * @return the number of sessions that were closed.
+     */
+    public int expireIdle() {
+        long now     = System.nanoTime();
+        int  expired = 0;
+        for (Session session : sessions.values()) {
+            if (now - session.getLastAccess() > idleTimeout && sessions.remove(session.getId(), session)) {
+                if (System.nanoTime() - session.getLastAccess() > idleTimeout)
+                    expired++;
+                else
+                    sessions.putIfAbsent(session.getId(), session); // it was used just as it was being removed
+            }
+        }
+        return expired;
+    }
+
+    /** Stops expiring the idle sessions. The sessions that are open can still be used. */
+    @Override
+    public void close() {
+        expiry.shutdownNow();
+    }
+
+    private Session session(String id) {
+        Session session = sessions.get(id);
+        if (session == null)
+            throw new NoSuchElementException(String.format("There is no session %s.", id));
+        session.touch();
+        return session;
+    }
+}
@@ -0,0 +1,74 @@
+package engine;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class GameEventTest {
+
+    @Test
+    public void replayingTheEventsOfAGameReachesTheSameState() {
+        HangmanEngine   played = new HangmanEngine(10, 7, new Random(1));
+        List<GameEvent> events = new ArrayList<>();
+        played.newGame("encyclopedia");
+        events.add(GameEvent.gameStarted("encyclopedia"));
+        for (char letter : "eqxo".toCharArray()) {
+            played.guess(letter);
+            events.add(GameEvent.guess(letter));
+        }
+        events.add(GameEvent.hintUsed(played.hint()));
+        played.guess('c');
+        events.add(GameEvent.guess('c'));
+
+        HangmanEngine replayed = new HangmanEngine(10, 7, new Random(2));
+        for (GameEvent event : events)
+            event.applyTo(replayed);
+        assertSameGame(played.state(), replayed.state());
+    }
+
+    @Test
+    public void aCheckpointReplacesTheGameBeingPlayed() {
+        HangmanState  saved    = new HangmanState("hangman", HangmanEngine.maskOf("an"), HangmanEngine.maskOf("xa"),
+                                                  8, false);
+        HangmanEngine replayed = new HangmanEngine();
+        replayed.newGame("other");
+        replayed.guess('o');
+
+        GameEvent.checkpoint(saved).applyTo(replayed);
+        GameEvent.guess('g').applyTo(replayed);
+        assertEquals("hangman", replayed.getTargetWord());
+        assertEquals(HangmanEngine.maskOf("ang"), replayed.getGoodGuesses());
+        assertEquals(8, replayed.getRemainingGuesses());
+    }
+
+    @Test
+    public void aGuessThatCouldNotHaveBeenMadeIsNotReplayed() {
+        HangmanEngine replayed = new HangmanEngine();
+        GameEvent.gameStarted("hangman").applyTo(replayed);
+        GameEvent.guess('a').applyTo(replayed);
+        for (GameEvent event : new GameEvent[]{GameEvent.guess('a'), GameEvent.guess('A'),
+                                               GameEvent.hintUsed('a')}) {
+            try {
+                event.applyTo(replayed);
+                fail(String.format("%s should not have been replayed.", event));
+            } catch (IllegalStateException expected) {
+            }
+        }
+        assertEquals(HangmanEngine.maskOf("a"), replayed.getGoodGuesses());
+        assertEquals(10, replayed.getRemainingGuesses());
+    }
+
+    private static void assertSameGame(HangmanState expected, HangmanState actual) {
+        assertEquals(expected.getTargetWord(), actual.getTargetWord());
+        assertEquals(expected.getGoodGuesses(), actual.getGoodGuesses());
+        assertEquals(expected.getBadGuesses(), actual.getBadGuesses());
+        assertEquals(expected.getRemainingGuesses(), actual.getRemainingGuesses());
+        assertEquals(expected.isHintUsed(), actual.isHintUsed());
+        assertEquals(expected.getStatus(), actual.getStatus());
+    }
+}
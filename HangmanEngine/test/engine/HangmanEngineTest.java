@@ -0,0 +1,166 @@
+package engine;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HangmanEngineTest {
+
+    @Test
+    public void guessesHaveTheirOutcomes() {
+        HangmanEngine engine = new HangmanEngine();
+        assertEquals(GuessResult.GAME_OVER, engine.guess('a'));
+
+        engine.newGame("hangman");
+        assertEquals(GuessResult.GOOD, engine.guess('a'));
+        assertEquals(GuessResult.BAD, engine.guess('x'));
+        assertEquals(GuessResult.REPEATED, engine.guess('a'));
+        assertEquals(GuessResult.REPEATED, engine.guess('x'));
+        assertEquals(GuessResult.INVALID, engine.guess('A'));
+        assertEquals(GuessResult.INVALID, engine.guess('-'));
+        assertEquals(HangmanEngine.maskOf("a"), engine.getGoodGuesses());
+        assertEquals(HangmanEngine.maskOf("x"), engine.getBadGuesses());
+        assertEquals(9, engine.getRemainingGuesses());
+    }
+
+    @Test
+    public void revealingEveryLetterWinsTheGame() {
+        HangmanEngine engine = new HangmanEngine();
+        engine.newGame("hangman");
+        for (char letter : "hang".toCharArray()) {
+            engine.guess(letter);
+            assertEquals(HangmanState.Status.IN_PROGRESS, engine.getStatus());
+        }
+        engine.guess('m');
+        assertEquals(HangmanState.Status.WON, engine.getStatus());
+        assertTrue(engine.isSolved());
+        assertTrue(engine.isOver());
+        assertEquals(GuessResult.GAME_OVER, engine.guess('z'));
+    }
+
+    @Test
+    public void usingUpTheGuessesLosesTheGame() {
+        HangmanEngine engine = new HangmanEngine(3, HangmanEngine.DEFAULT_HINT_THRESHOLD, new Random(1));
+        engine.newGame("hangman");
+        engine.guess('x');
+        engine.guess('y');
+        assertEquals(HangmanState.Status.IN_PROGRESS, engine.getStatus());
+        engine.guess('z');
+        assertEquals(HangmanState.Status.LOST, engine.getStatus());
+        assertFalse(engine.isSolved());
+        assertTrue(engine.isOver());
+        assertEquals(GuessResult.GAME_OVER, engine.guess('a'));
+        assertEquals(0, engine.getRemainingGuesses());
+    }
+
+    @Test
+    public void onlyWordsWithMoreDistinctLettersThanTheThresholdAreHintable() {
+        HangmanEngine engine = new HangmanEngine(10, 7, new Random(1));
+        engine.newGame("abcdefg");
+        assertFalse(engine.isHintable());
+        assertFalse(engine.isHintAvailable());
+        try {
+            engine.hint();
+            fail("A word with only seven distinct letters should get no hint.");
+        } catch (IllegalStateException expected) {
+        }
+
+        engine.newGame("abcdefgh");
+        assertTrue(engine.isHintable());
+        assertTrue(engine.isHintAvailable());
+    }
+
+    @Test
+    public void theHintIsGivenOncePerGameAndCostsAGuess() {
+        HangmanEngine engine = new HangmanEngine(10, 7, new Random(1));
+        engine.newGame("abcdefgh");
+        char letter = engine.hint();
+        assertTrue(letter >= 'a' && letter <= 'h');
+        assertTrue(engine.isGuessed(letter));
+        assertTrue(engine.isHintUsed());
+        assertEquals(9, engine.getRemainingGuesses());
+        assertFalse(engine.isHintAvailable());
+        try {
+            engine.hint();
+            fail("The hint should be given only once per game.");
+        } catch (IllegalStateException expected) {
+        }
+
+        engine.newGame("abcdefgh");
+        assertTrue(engine.isHintAvailable());
+    }
+
+    @Test
+    public void theHintIsNotGivenForTheLastGuess() {
+        HangmanEngine engine = new HangmanEngine(10, 7, new Random(1));
+        engine.newGame("abcdefgh");
+        for (char letter : "ijklmnop".toCharArray())
+            engine.guess(letter);
+        assertEquals(2, engine.getRemainingGuesses());
+        assertTrue(engine.isHintAvailable());
+
+        engine.guess('q');
+        assertEquals(1, engine.getRemainingGuesses());
+        assertFalse(engine.isHintAvailable());
+    }
+
+    @Test
+    public void aHintCanOnlyRevealAHiddenLetter() {
+        HangmanEngine engine = new HangmanEngine(10, 7, new Random(1));
+        engine.newGame("abcdefgh");
+        engine.guess('a');
+        for (char letter : new char[]{'a', 'z', 'A'}) {
+            try {
+                engine.hint(letter);
+                fail(String.format("'%c' is not a hidden letter.", letter));
+            } catch (IllegalStateException expected) {
+            }
+        }
+        assertFalse(engine.isHintUsed());
+        assertEquals(10, engine.getRemainingGuesses());
+
+        assertEquals('b', engine.hint('b'));
+        assertTrue(engine.isHintUsed());
+    }
+
+    @Test
+    public void restoringTheGuessesRecomputesTheRemainingGuesses() {
+        HangmanEngine engine = new HangmanEngine();
+        engine.restore("hangman", HangmanEngine.maskOf("an"), HangmanEngine.maskOf("xyz"), false);
+        assertEquals(7, engine.getRemainingGuesses());
+        assertEquals(HangmanState.Status.IN_PROGRESS, engine.getStatus());
+        assertEquals(GuessResult.REPEATED, engine.guess('x'));
+
+        engine.restore("hangman", HangmanEngine.maskOf("hangm"), 0, false);
+        assertEquals(10, engine.getRemainingGuesses());
+        assertEquals(HangmanState.Status.WON, engine.getStatus());
+    }
+
+    @Test
+    public void restoringASnapshotResumesTheGame() {
+        HangmanEngine played = new HangmanEngine(10, 7, new Random(1));
+        played.newGame("abcdefgh");
+        played.guess('a');
+        played.guess('z');
+        played.hint();
+
+        HangmanEngine restored = new HangmanEngine();
+        restored.newGame("other");
+        restored.restore(played.state());
+        assertEquals("abcdefgh", restored.getTargetWord());
+        assertEquals(played.getGoodGuesses(), restored.getGoodGuesses());
+        assertEquals(played.getBadGuesses(), restored.getBadGuesses());
+        assertEquals(8, restored.getRemainingGuesses());
+        assertTrue(restored.isHintUsed());
+        assertFalse(restored.isHintAvailable());
+
+        restored.restore(new HangmanState(null, 0, 0, 0, false));
+        assertEquals(HangmanState.Status.NOT_STARTED, restored.getStatus());
+        assertEquals(10, restored.getRemainingGuesses());
+    }
+}
@@ -15,6 +15,7 @@ import xmlutils.InvalidXMLFileFormatException;
 
 import java.io.File;
 import java.net.URL;
+import java.util.concurrent.CompletableFuture;
 
 import static settings.AppPropertyType.*;
 import static settings.InitializationParameters.*;
@@ -29,6 +30,7 @@ public abstract class AppTemplate extends Application {
     private AppFileComponent      fileComponent; // to manage the app's file I/O
     private AppWorkspaceComponent workspaceComponent; // to manage the app's GUI workspace
     private AppGUI                gui;
+    private CompletableFuture<Void> readiness = CompletableFuture.completedFuture(null); // completes after warm-up
 
     public String getFileControllerClass() {
         return "AppFileController";
@@ -52,8 +54,41 @@ public abstract class AppTemplate extends Application {
         return gui;
     }
 
+    /**
+     * Accessor for the outcome of {@link #warmUp()}. Anything that depends on the warm-up having been done should wait
+     * on this future, but only if it has not already completed, so as not to block the JavaFX application thread
+     * needlessly.
+     *
+     * @return a future that completes once the warm-up is done, or completes exceptionally if the warm-up failed.
+     */
+    public CompletableFuture<Void> getReadiness() {
+        return readiness;
+    }
+
+    /**
+     * This method is for expensive preparatory work that does not need the JavaFX application thread, like loading
+     * and indexing large data sets. It is started on a background thread as soon as the application starts, so that
+     * it overlaps with loading the properties and constructing the window. By default, there is nothing to be done.
+     *
+     * @throws Exception if the preparatory work fails.
+     */
+    public void warmUp() throws Exception { }
+
     @Override
     public void start(Stage primaryStage) {
+        CompletableFuture<Void> warmup = new CompletableFuture<>();
+        Thread warmupThread = new Thread(() -> {
+            try {
+                warmUp();
+                warmup.complete(null);
+            } catch (Throwable t) {
+                warmup.completeExceptionally(t);
+            }
+        }, "warm-up");
+        warmupThread.setDaemon(true); // never keep the application alive just for the warm-up
+        readiness = warmup;
+        warmupThread.start();
+
         AppMessageDialogSingleton  messageDialog = AppMessageDialogSingleton.getSingleton();
         YesNoCancelDialogSingleton yesNoDialog   = YesNoCancelDialogSingleton.getSingleton();
         messageDialog.init(primaryStage);
@@ -0,0 +1,149 @@
+package components;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves data on a background thread, so that the JavaFX application thread never waits for the disk. The caller hands
+ * over a snapshot of the data, i.e., a copy that nothing else changes, and gets back a future that completes once it
+ * has been written with the app's {@link AppFileComponent}.
+ * <p>
+ * Saves to the same target are coalesced: only the latest snapshot waiting to be written to a file is written, and the
+ * futures of the snapshots it replaced complete along with it. An autosave after every change therefore costs at most
+ * one write per {@code delay}, however fast the changes come. Snapshots for different targets never replace each
+ * other, and are written in the order they are due.
+ */
+public class AutoSaver implements Closeable {
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 10; // how long closing waits for the last save to be written
+
+    private final AppFileComponent            fileComponent;
+    private final long                        delay;     // how long a scheduled save waits for a newer snapshot
+    private final TimeUnit                    unit;
+    private final ScheduledThreadPoolExecutor writer;    // a single background thread that does all the writing
+    private final Map<Path, Request>          pending;   // the latest unwritten snapshot of each target; guarded
+
+    /**
+     * @param fileComponent Writes the snapshots.
+     * @param delay         How long a scheduled save waits for a newer snapshot to replace it.
+     * @param unit          The unit of the delay.
+     */
+    public AutoSaver(AppFileComponent fileComponent, long delay, TimeUnit unit) {
+        this.fileComponent = fileComponent;
+        this.delay = delay;
+        this.unit = unit;
+        this.pending = new LinkedHashMap<>();
+        this.writer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Saves a snapshot of the data after the configured delay, or along with a newer one handed over by then, e.g.,
+     * after every change to the data.
+     *
+     * @param snapshot The data to save, which must not be changed afterwards.
+     * @param target   The file to save it to.
+     * @return a future that completes once the snapshot, or a newer one, has been written.
+     */
+    public CompletableFuture<Void> schedule(AppDataComponent snapshot, Path target) {
+        Request request = offer(snapshot, target);
+        if (request.replaced == null)
+            writer.schedule(() -> write(target), delay, unit);
+        return request.done;
+    }
+
+    /**
+     * Saves a snapshot of the data as soon as possible, in place of any other that is waiting to be written to the same
+     * target.
+     *
+     * @param snapshot The data to save, which must not be changed afterwards.
+     * @param target   The file to save it to.
+     * @return a future that completes once the snapshot, or a newer one, has been written.
+     */
+    public CompletableFuture<Void> save(AppDataComponent snapshot, Path target) {
+        Request request = offer(snapshot, target);
+        writer.execute(() -> write(target));
+        return request.done;
+    }
+
+    private Request offer(AppDataComponent snapshot, Path target) {
+        Request request = new Request(snapshot, target);
+        synchronized (pending) {
+            request.replaced = pending.put(target, request);
+        }
+        if (request.replaced != null) {
+            CompletableFuture<Void> replaced = request.replaced.done;
+            request.done.whenComplete((result, failure) -> {
+                if (failure == null)
+                    replaced.complete(null);
+                else
+                    replaced.completeExceptionally(failure);
+            });
+        }
+        return request;
+    }
+
+    private void write(Path target) {
+        Request request;
+        synchronized (pending) {
+            request = pending.remove(target);
+        }
+        if (request == null)
+            return; // already written along with a newer snapshot
+        write(request);
+    }
+
+    private void writeAll() {
+        List<Request> requests;
+        synchronized (pending) {
+            requests = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (Request request : requests)
+            write(request);
+    }
+
+    private void write(Request request) {
+        try {
+            fileComponent.saveData(request.snapshot, request.target);
+            request.done.complete(null);
+        } catch (IOException | RuntimeException e) {
+            request.done.completeExceptionally(e);
+        }
+    }
+
+    /** Writes the snapshots that are still waiting to be written, if any, and then stops the background thread. */
+    @Override
+    public void close() {
+        writer.execute(this::writeAll);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Request {
+        private final AppDataComponent        snapshot;
+        private final Path                    target;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private       Request                 replaced; // the unwritten request that this one took the place of
+
+        private Request(AppDataComponent snapshot, Path target) {
+            this.snapshot = snapshot;
+            this.target = target;
+        }
+    }
+}
@@ -53,6 +53,8 @@ public enum AppPropertyType {
     LOAD_WORK_TITLE,
     WORK_FILE_EXT,
     WORK_FILE_EXT_DESC,
+    BINARY_WORK_FILE_EXT,
+    BINARY_WORK_FILE_EXT_DESC,
     LOAD_COMPLETED_MESSAGE,
     LOAD_COMPLETED_TITLE,
 